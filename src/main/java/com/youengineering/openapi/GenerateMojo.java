@@ -8,9 +8,15 @@ import com.youengineering.openapi.reflection.AnnotatedClassService;
 import com.youengineering.openapi.document.export.OpenAPIExporter;
 import com.youengineering.openapi.document.generator.OpenAPIGenerator;
 import com.youengineering.openapi.document.reader.AbstractReader;
+import com.youengineering.openapi.document.reader.FragmentCache;
+import com.youengineering.openapi.document.reader.ModelConverterPipeline;
 import com.youengineering.openapi.config.ContentConfig;
 import com.youengineering.openapi.config.OutputConfig;
+import com.youengineering.openapi.config.ScanScope;
+import io.swagger.v3.core.converter.ModelConverter;
 import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -18,39 +24,148 @@ import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.*;
 import org.apache.maven.project.MavenProject;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 @Mojo(name = "generate", defaultPhase = LifecyclePhase.PREPARE_PACKAGE, requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, threadSafe = true)
 public class GenerateMojo extends AbstractMojo {
 
     @Parameter(defaultValue = "${project}", readonly = true)
     private MavenProject project;
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
 
     @Parameter
     private String sourcePackage;
+    // Additional packages to generate the API of, sourcePackage is included automatically
+    @Parameter
+    private List<String> sourcePackages;
+    // Packages (with all of their subpackages) inside the source packages to leave out
+    @Parameter
+    private List<String> excludePackages;
+    @Parameter(defaultValue = "outputDirectory")
+    private ScanScope scanScope;
+    // groupId:artifactId patterns (supporting * wildcards) of the dependencies scanned in the "dependencies" scope
+    @Parameter
+    private List<String> scanDependencies;
     @Parameter
     private Framework framework;
     @Parameter
     private ContentConfig content;
     @Parameter
     private OutputConfig output;
+    // Shared between all projects on the machine
+    @Parameter(defaultValue = "${user.home}/.m2/openapi-maven-plugin/scan-cache")
+    private String scanCacheDirectory;
+    // Number of threads scanning classpath elements in parallel, 0 uses one per available processor
+    @Parameter(defaultValue = "0")
+    private int scanThreads;
+    // Number of threads reading API classes in parallel, 0 uses one per available processor
+    @Parameter(defaultValue = "1")
+    private int readThreads;
+    // Reuses the document fragments of API classes that did not change since the previous execution
+    @Parameter(defaultValue = "true")
+    private boolean incremental;
+    // Skips the generation if neither the inputs nor the previously written outputs changed
+    @Parameter(defaultValue = "true")
+    private boolean skipIfUpToDate;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-        try {
-            AnnotatedClassService annotatedClassService = new AnnotatedClassService();
-            annotatedClassService.initialize(project, sourcePackage);
-
-            OpenAPIPreparator.loadModelConverters_Custom(content.getModelConverters());
+        List<Path> outputFiles = OpenAPIExporter.getOutputFiles(output);
+        ModelConverterPipeline modelConverterPipeline = OpenAPIPreparator.loadModelConverters_Custom(content.getModelConverters());
+        UpToDateCheck upToDateCheck = (skipIfUpToDate ? createUpToDateCheck(modelConverterPipeline) : null);
+        if ((upToDateCheck != null) && upToDateCheck.isUpToDate(outputFiles)) {
+            getLog().info("OpenAPI document is up to date");
+            return;
+        }
+        try (AnnotatedClassService annotatedClassService = new AnnotatedClassService(getLog())) {
+            annotatedClassService.initialize(project, getSourcePackages(), excludePackages, scanScope, scanDependencies, scanCacheDirectory, scanThreads);
 
             OpenAPIGenerator openAPIGenerator = new OpenAPIGenerator(content);
             AbstractReader reader = getReader(annotatedClassService);
+            reader.setModelConverterPipeline(modelConverterPipeline);
+            reader.setReadThreads((readThreads > 0) ? readThreads : Runtime.getRuntime().availableProcessors());
+            if (incremental) {
+                reader.setFragmentCache(new FragmentCache(Paths.get(project.getBuild().getDirectory(), "openapi-maven-plugin", "fragments"), getLog()));
+            }
             OpenAPI openAPI = openAPIGenerator.generateOpenAPI(reader);
 
             OpenAPIExporter.write(openAPI, output);
+            annotatedClassService.setKeepSharedClassLoaders(hasRemainingProjects());
         } catch (GenerateException ex) {
             throw new MojoFailureException(ex.getMessage(), ex);
         } catch (Exception ex) {
             throw new MojoExecutionException(ex.getMessage(), ex);
         }
+        if (upToDateCheck != null) {
+            upToDateCheck.save(outputFiles);
+        }
+    }
+
+    private UpToDateCheck createUpToDateCheck(ModelConverterPipeline modelConverterPipeline) throws MojoExecutionException {
+        UpToDateCheck upToDateCheck = new UpToDateCheck(Paths.get(project.getBuild().getDirectory(), "openapi-maven-plugin", "up-to-date.properties"), getLog());
+        try {
+            upToDateCheck.addClasspathElement(getCodeSourceLocation(GenerateMojo.class));
+            // Custom model converters come from the plugin's dependencies, which the configuration only names
+            for (ModelConverter modelConverter : modelConverterPipeline.getConverters()) {
+                upToDateCheck.addClasspathElement(getCodeSourceLocation(modelConverter.getClass()));
+            }
+            upToDateCheck.addValue("sourcePackages", getSourcePackages());
+            upToDateCheck.addValue("excludePackages", excludePackages);
+            upToDateCheck.addValue("scanScope", scanScope);
+            upToDateCheck.addValue("scanDependencies", scanDependencies);
+            upToDateCheck.addValue("framework", framework);
+            upToDateCheck.addValue("content", content);
+            upToDateCheck.addValue("output", output);
+            if (content.getSecurityDefinitionsPath() != null) {
+                upToDateCheck.addFile("securityDefinitions", Paths.get(content.getSecurityDefinitionsPath()));
+            }
+            // All class files count, as the API may also depend on classes outside of the source packages
+            for (String classpathElement : AnnotatedClassService.getDependentClasspathElements(project)) {
+                upToDateCheck.addClasspathElement(Paths.get(classpathElement));
+            }
+            return upToDateCheck;
+        } catch (URISyntaxException | IOException ex) {
+            throw new MojoExecutionException("Unable to fingerprint the inputs", ex);
+        } catch (DependencyResolutionRequiredException ex) {
+            throw new MojoExecutionException("Dependency resolution (runtime + compile) is required");
+        }
+    }
+
+    private static Path getCodeSourceLocation(Class<?> cls) throws URISyntaxException {
+        return Paths.get(cls.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * Whether other projects of the reactor have not been built yet, and so
+     * may reuse the shared dependency class loaders.
+     */
+    private boolean hasRemainingProjects() {
+        if ((session == null) || (session.getResult() == null)) {
+            return false;
+        }
+        for (MavenProject reactorProject : session.getProjects()) {
+            if ((reactorProject != project) && (session.getResult().getBuildSummary(reactorProject) == null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> getSourcePackages() {
+        List<String> allSourcePackages = new ArrayList<>();
+        if (sourcePackage != null) {
+            allSourcePackages.add(sourcePackage);
+        }
+        if (sourcePackages != null) {
+            allSourcePackages.addAll(sourcePackages);
+        }
+        return allSourcePackages;
     }
 
     private AbstractReader getReader(AnnotatedClassService annotatedClassService) throws GenerateException {
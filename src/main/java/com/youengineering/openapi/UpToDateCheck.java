@@ -0,0 +1,122 @@
+package com.youengineering.openapi;
+
+import com.youengineering.openapi.reflection.Fingerprint;
+import io.swagger.v3.core.util.Json;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Decides whether the outputs of a previous execution are still up to date,
+ * based on a fingerprint over all inputs of the generation and the contents
+ * of the written output files.
+ */
+class UpToDateCheck {
+
+    private static final String INPUTS_KEY = "inputs";
+    private static final String OUTPUT_KEY_PREFIX = "output.";
+
+    private final Path fingerprintFile;
+    private final Log log;
+    private final MessageDigest inputsDigest = Fingerprint.sha256();
+    private String inputsFingerprint;
+
+    UpToDateCheck(Path fingerprintFile, Log log) {
+        this.fingerprintFile = fingerprintFile;
+        this.log = log;
+    }
+
+    void addValue(String name, Object value) throws IOException {
+        update(name + "=" + Json.mapper().writeValueAsString(value) + "\n");
+    }
+
+    void addFile(String name, Path file) throws IOException {
+        update(name + "=" + (Files.isRegularFile(file) ? Fingerprint.toHex(Fingerprint.sha256(file)) : "") + "\n");
+    }
+
+    /**
+     * Jars are identified by their size and modification time, directories by
+     * those of all class files they contain.
+     */
+    void addClasspathElement(Path classpathElement) throws IOException {
+        if (Files.isRegularFile(classpathElement)) {
+            BasicFileAttributes attributes = Files.readAttributes(classpathElement, BasicFileAttributes.class);
+            update(String.format("%s|%d|%d\n", classpathElement, attributes.size(), attributes.lastModifiedTime().toMillis()));
+        } else if (Files.isDirectory(classpathElement)) {
+            SortedMap<String, String> classFiles = new TreeMap<>();
+            Files.walkFileTree(classpathElement, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (file.getFileName().toString().endsWith(".class")) {
+                        classFiles.put(classpathElement.relativize(file).toString(), String.format("|%d|%d", attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            update(classpathElement + "\n");
+            for (SortedMap.Entry<String, String> classFileEntry : classFiles.entrySet()) {
+                update(classFileEntry.getKey() + classFileEntry.getValue() + "\n");
+            }
+        }
+    }
+
+    boolean isUpToDate(List<Path> outputFiles) {
+        if (!Files.isRegularFile(fingerprintFile)) {
+            return false;
+        }
+        Properties fingerprint = new Properties();
+        try (InputStream input = Files.newInputStream(fingerprintFile)) {
+            fingerprint.load(input);
+            if (!getInputsFingerprint().equals(fingerprint.getProperty(INPUTS_KEY))) {
+                return false;
+            }
+            for (Path outputFile : outputFiles) {
+                if (!Files.isRegularFile(outputFile) || !Fingerprint.toHex(Fingerprint.sha256(outputFile)).equals(fingerprint.getProperty(OUTPUT_KEY_PREFIX + outputFile))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException ex) {
+            log.debug("Ignoring unreadable fingerprint: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    void save(List<Path> outputFiles) {
+        Properties fingerprint = new Properties();
+        try {
+            fingerprint.setProperty(INPUTS_KEY, getInputsFingerprint());
+            for (Path outputFile : outputFiles) {
+                fingerprint.setProperty(OUTPUT_KEY_PREFIX + outputFile, Fingerprint.toHex(Fingerprint.sha256(outputFile)));
+            }
+            Files.createDirectories(fingerprintFile.getParent());
+            try (OutputStream output = Files.newOutputStream(fingerprintFile)) {
+                fingerprint.store(output, null);
+            }
+        } catch (IOException ex) {
+            log.warn("Unable to write fingerprint: " + ex.getMessage());
+        }
+    }
+
+    private String getInputsFingerprint() {
+        if (inputsFingerprint == null) {
+            inputsFingerprint = Fingerprint.toHex(inputsDigest.digest());
+        }
+        return inputsFingerprint;
+    }
+
+    private void update(String value) {
+        inputsDigest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,7 @@
+package com.youengineering.openapi.config;
+
+public enum ScanScope {
+    outputDirectory,
+    dependencies,
+    classpath
+}
@@ -13,7 +13,10 @@ import io.swagger.v3.oas.models.OpenAPI;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OpenAPIExporter {
 
@@ -33,14 +36,25 @@ public class OpenAPIExporter {
                         fileContent = jsonWriter.writeValueAsString(openAPI);
                         break;
                 }
-                String filePath = outputConfig.getDirectory() + "/" + outputConfig.getFileName() + "." + outputFormat.name();
-                Files.write(Paths.get(filePath), fileContent.getBytes("UTF8"));
+                Files.write(getOutputFile(outputConfig, outputFormat), fileContent.getBytes("UTF8"));
             } catch (IOException ex) {
                 throw new GenerateException(String.format("Writing file [%s] failed.", outputFormat), ex);
             }
         }
     }
 
+    public static List<Path> getOutputFiles(OutputConfig outputConfig) {
+        List<Path> outputFiles = new ArrayList<>();
+        for (OutputFormat outputFormat : outputConfig.getFormats()) {
+            outputFiles.add(getOutputFile(outputConfig, outputFormat));
+        }
+        return outputFiles;
+    }
+
+    private static Path getOutputFile(OutputConfig outputConfig, OutputFormat outputFormat) {
+        return Paths.get(outputConfig.getDirectory() + "/" + outputConfig.getFileName() + "." + outputFormat.name());
+    }
+
     private static void createDirectoryIfNotExists(String directoryPath) throws GenerateException {
         File directory = new File(directoryPath);
         if (directory.isFile()) {
@@ -1,31 +1,33 @@
 package com.youengineering.openapi.document.generator;
 
+import com.youengineering.openapi.document.reader.ModelConverterPipeline;
 import io.swagger.v3.core.converter.ModelConverter;
-import io.swagger.v3.core.converter.ModelConverters;
 import org.apache.maven.plugin.MojoExecutionException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class OpenAPIPreparator {
 
-    public static void loadModelConverters_Custom(List<String> modelConverters) throws MojoExecutionException {
-        if (modelConverters == null) {
-            return;
-        }
-        for (String modelConverter : modelConverters) {
-            try {
-                final Class<?> modelConverterClass = Class.forName(modelConverter);
-                if (ModelConverter.class.isAssignableFrom(modelConverterClass)) {
-                    final ModelConverter modelConverterInstance = (ModelConverter) modelConverterClass.newInstance();
-                    ModelConverters.getInstance().addConverter(modelConverterInstance);
-                } else {
-                    throw new MojoExecutionException(String.format("Class %s has to be a subclass of %s", modelConverterClass.getName(), ModelConverter.class));
+    public static ModelConverterPipeline loadModelConverters_Custom(List<String> modelConverters) throws MojoExecutionException {
+        List<ModelConverter> modelConverterInstances = new ArrayList<>();
+        if (modelConverters != null) {
+            for (String modelConverter : modelConverters) {
+                try {
+                    final Class<?> modelConverterClass = Class.forName(modelConverter);
+                    if (ModelConverter.class.isAssignableFrom(modelConverterClass)) {
+                        final ModelConverter modelConverterInstance = (ModelConverter) modelConverterClass.newInstance();
+                        modelConverterInstances.add(modelConverterInstance);
+                    } else {
+                        throw new MojoExecutionException(String.format("Class %s has to be a subclass of %s", modelConverterClass.getName(), ModelConverter.class));
+                    }
+                } catch (ClassNotFoundException ex) {
+                    throw new MojoExecutionException(String.format("Could not find custom model converter %s", modelConverter), ex);
+                } catch (InstantiationException | IllegalAccessException ex) {
+                    throw new MojoExecutionException(String.format("Unable to instantiate custom model converter %s", modelConverter), ex);
                 }
-            } catch (ClassNotFoundException ex) {
-                throw new MojoExecutionException(String.format("Could not find custom model converter %s", modelConverter), ex);
-            } catch (InstantiationException | IllegalAccessException ex) {
-                throw new MojoExecutionException(String.format("Unable to instantiate custom model converter %s", modelConverter), ex);
             }
         }
+        return new ModelConverterPipeline(modelConverterInstances);
     }
 }
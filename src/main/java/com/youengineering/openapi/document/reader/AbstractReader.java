@@ -1,22 +1,28 @@
 package com.youengineering.openapi.document.reader;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.youengineering.openapi.GenerateException;
 import com.youengineering.openapi.config.ContentConfig;
+import com.youengineering.openapi.reflection.AnnotatedElementMetadata;
 import com.youengineering.openapi.reflection.AnnotatedClassService;
 import com.youengineering.openapi.reflection.AnnotatedMethodService;
+import com.youengineering.openapi.reflection.ClassDependencyHasher;
+import com.youengineering.openapi.reflection.ParameterNameTable;
 import com.sun.jersey.api.core.InjectParam;
+import io.swagger.v3.core.converter.ModelConverter;
 import io.swagger.v3.core.converter.ResolvedSchema;
+import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.ParameterProcessor;
 import io.swagger.v3.core.util.PathUtils;
 import io.swagger.v3.jaxrs2.ResolvedParameter;
 import io.swagger.v3.jaxrs2.ext.OpenAPIExtension;
-import io.swagger.v3.jaxrs2.ext.OpenAPIExtensions;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
@@ -29,18 +35,23 @@ import io.swagger.v3.oas.models.tags.Tag;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.plexus.util.StringUtils;
-import org.springframework.core.DefaultParameterNameDiscoverer;
 
 import javax.ws.rs.*;
+import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
-import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
-import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
 
 public abstract class AbstractReader {
 
@@ -52,21 +63,216 @@ public abstract class AbstractReader {
     private AnnotatedClassService annotatedClassService;
     protected Log log;
     private ContentConfig contentConfig;
+    private FragmentCache fragmentCache;
+    private int readThreads = 1;
+    private ModelConverterPipeline modelConverterPipeline = new ModelConverterPipeline(Collections.emptyList());
+    private List<OpenAPIExtension> openAPIExtensions = Collections.emptyList();
+    private ParameterAnnotationTable parameterAnnotationTable = new ParameterAnnotationTable();
+    private final Map<Class<?>, ControllerContext> controllerContexts = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Method, OperationTemplate>> operationTemplates = new ConcurrentHashMap<>();
+
+    public void setFragmentCache(FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    public void setModelConverterPipeline(ModelConverterPipeline modelConverterPipeline) {
+        this.modelConverterPipeline = modelConverterPipeline;
+    }
+
+    public void setReadThreads(int readThreads) {
+        this.readThreads = readThreads;
+    }
+
+    /**
+     * Every API class is read into its own document fragment, which are then
+     * merged in the order of the class names, so the result neither depends
+     * on the order the classes were found or read in nor on whether a
+     * fragment was read or taken from the {@link FragmentCache}.
+     */
+    public void enrich(OpenAPI openAPI) throws GenerateException {
+        initializeOpenAPIExtensions();
+        initializeParameterAnnotationTable();
+        Set<Class<?>> apiClasses = getApiClasses();
+        initialize(apiClasses);
+        List<Class<?>> sortedApiClasses = new ArrayList<>(apiClasses);
+        sortedApiClasses.sort(Comparator.comparing(Class::getName));
+
+        ClassDependencyHasher classDependencyHasher = new ClassDependencyHasher(annotatedClassService.getClassLoader());
+        String sharedFragmentKey = ((fragmentCache != null) ? getSharedFragmentKey(apiClasses, classDependencyHasher) : null);
+        AtomicInteger readFragments = new AtomicInteger();
+        List<OpenAPI> fragments = getFragments(sortedApiClasses, apiClass -> {
+            try (ModelConverterPipeline.Binding binding = modelConverterPipeline.bind()) {
+                return getFragment(apiClass, sharedFragmentKey, classDependencyHasher, readFragments);
+            }
+        });
+        for (OpenAPI fragment : fragments) {
+            mergeFragment(openAPI, fragment);
+        }
+        if (fragmentCache != null) {
+            fragmentCache.removeUnusedFragments();
+            log.debug(String.format("Read %d of %d API classes, reused the others from the fragment cache", readFragments.get(), sortedApiClasses.size()));
+        }
+        ResolvedSchemaCache resolvedSchemaCache = modelConverterPipeline.getResolvedSchemaCache();
+        log.debug(String.format("Resolved schemas of %d types, %d resolutions taken from the schema cache", resolvedSchemaCache.getMisses(), resolvedSchemaCache.getHits()));
+    }
+
+    /**
+     * API classes are read independently of each other, so with more than one
+     * read thread they are read in parallel. The fragments are returned in the
+     * order of the given classes either way.
+     */
+    private List<OpenAPI> getFragments(List<Class<?>> apiClasses, Function<Class<?>, OpenAPI> fragmentFunction) throws GenerateException {
+        List<OpenAPI> fragments = new ArrayList<>();
+        if ((readThreads <= 1) || (apiClasses.size() <= 1)) {
+            for (Class<?> apiClass : apiClasses) {
+                fragments.add(fragmentFunction.apply(apiClass));
+            }
+            return fragments;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(readThreads, apiClasses.size()));
+        try {
+            List<Future<OpenAPI>> futures = new ArrayList<>();
+            for (Class<?> apiClass : apiClasses) {
+                futures.add(forkJoinPool.submit(() -> {
+                    // Libraries resolving classes by name rely on the context class loader, which worker threads do not inherit
+                    Thread.currentThread().setContextClassLoader(classLoader);
+                    return fragmentFunction.apply(apiClass);
+                }));
+            }
+            for (Future<OpenAPI> future : futures) {
+                fragments.add(future.get());
+            }
+            return fragments;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while reading the API classes", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new GenerateException(ex.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    private OpenAPI getFragment(Class<?> apiClass, String sharedFragmentKey, ClassDependencyHasher classDependencyHasher, AtomicInteger readFragments) {
+        OpenAPI fragment = null;
+        String fragmentKey = null;
+        if (sharedFragmentKey != null) {
+            fragmentKey = getFragmentKey(sharedFragmentKey, apiClass, classDependencyHasher);
+            fragment = ((fragmentKey != null) ? fragmentCache.get(apiClass, fragmentKey) : null);
+        }
+        if (fragment == null) {
+            fragment = readFragment(apiClass);
+            readFragments.incrementAndGet();
+            if (fragmentKey != null) {
+                fragmentCache.put(apiClass, fragmentKey, fragment);
+            }
+        }
+        return fragment;
+    }
+
+    private OpenAPI readFragment(Class<?> apiClass) {
+        OpenAPI fragment = new OpenAPI();
+        fragment.setComponents(new Components());
+        fragment.setPaths(new Paths());
+        enrich(fragment, apiClass);
+        return fragment;
+    }
 
-    public void enrich(OpenAPI openAPI) {
-        initializeOpenAPIExtensions(openAPI);
-        enrich(openAPI, getApiClasses());
+    /**
+     * The part of the fragment keys that is the same for all API classes,
+     * covering the plugin itself, its configuration, the custom model
+     * converters and the classes that influence every fragment.
+     */
+    private String getSharedFragmentKey(Set<Class<?>> apiClasses, ClassDependencyHasher classDependencyHasher) {
+        try {
+            File pluginLocation = new File(AbstractReader.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return pluginLocation + "|" + pluginLocation.lastModified()
+                 + "|" + getClass().getName()
+                 + "|" + Json.mapper().writeValueAsString(contentConfig)
+                 + "|" + getModelConvertersKey()
+                 + "|" + classDependencyHasher.hash(getSharedDependencies(apiClasses));
+        } catch (URISyntaxException | IOException ex) {
+            log.warn("Unable to use the fragment cache: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The configuration only names the converter classes. They are loaded
+     * from the plugin's dependencies, which can change between runs as well.
+     */
+    private String getModelConvertersKey() throws IOException {
+        StringBuilder modelConvertersKey = new StringBuilder();
+        for (ModelConverter modelConverter : modelConverterPipeline.getConverters()) {
+            Class<?> modelConverterClass = modelConverter.getClass();
+            ClassDependencyHasher modelConverterHasher = new ClassDependencyHasher(modelConverterClass.getClassLoader());
+            modelConvertersKey.append(modelConverterClass.getName()).append('=').append(modelConverterHasher.hash(Collections.singleton(modelConverterClass))).append(';');
+        }
+        return modelConvertersKey.toString();
+    }
+
+    private String getFragmentKey(String sharedFragmentKey, Class<?> apiClass, ClassDependencyHasher classDependencyHasher) {
+        try {
+            return sharedFragmentKey + "|" + classDependencyHasher.hash(Collections.singleton(apiClass));
+        } catch (IOException ex) {
+            log.debug(String.format("Unable to hash the dependencies of %s: %s", apiClass.getName(), ex.getMessage()));
+            return null;
+        }
     }
 
-    private void initializeOpenAPIExtensions(OpenAPI openAPI) {
-        List<OpenAPIExtension> openAPIExtensions = getSwaggerExtensions();
-        for (OpenAPIExtension openAPIExtension : openAPIExtensions) {
+    private void mergeFragment(OpenAPI openAPI, OpenAPI fragment) {
+        if (fragment.getPaths() != null) {
+            for (Map.Entry<String, PathItem> pathItemEntry : fragment.getPaths().entrySet()) {
+                PathItem pathItem = openAPI.getPaths().get(pathItemEntry.getKey());
+                if (pathItem == null) {
+                    openAPI.getPaths().addPathItem(pathItemEntry.getKey(), pathItemEntry.getValue());
+                } else {
+                    pathItemEntry.getValue().readOperationsMap().forEach(pathItem::operation);
+                }
+            }
+        }
+        if (fragment.getTags() != null) {
+            for (Tag tag : fragment.getTags()) {
+                if ((openAPI.getTags() == null) || openAPI.getTags().stream().noneMatch(existingTag -> existingTag.getName().equals(tag.getName()))) {
+                    openAPI.addTagsItem(tag);
+                }
+            }
+        }
+        if ((fragment.getComponents() != null) && (fragment.getComponents().getSchemas() != null)) {
+            fragment.getComponents().getSchemas().forEach(openAPI.getComponents()::addSchemas);
+        }
+    }
+
+    /**
+     * The extensions are kept per reader instead of being registered in the
+     * global {@link io.swagger.v3.jaxrs2.ext.OpenAPIExtensions}, so that
+     * executions running at the same time do not replace each other's chain.
+     */
+    private void initializeOpenAPIExtensions() {
+        List<OpenAPIExtension> swaggerExtensions = getSwaggerExtensions();
+        for (OpenAPIExtension openAPIExtension : swaggerExtensions) {
             if (openAPIExtension instanceof AbstractReaderOpenAPIExtension) {
                 AbstractReaderOpenAPIExtension abstractReaderOpenAPIExtension = (AbstractReaderOpenAPIExtension) openAPIExtension;
-                abstractReaderOpenAPIExtension.setContext(this, openAPI);
+                abstractReaderOpenAPIExtension.setContext(this);
             }
         }
-        OpenAPIExtensions.setExtensions(openAPIExtensions);
+        openAPIExtensions = Collections.unmodifiableList(swaggerExtensions);
+    }
+
+    private void initializeParameterAnnotationTable() {
+        ParameterAnnotationTable parameterAnnotationTable = new ParameterAnnotationTable();
+        registerParameterAnnotations(parameterAnnotationTable);
+        this.parameterAnnotationTable = parameterAnnotationTable;
+    }
+
+    protected Iterator<OpenAPIExtension> getOpenAPIExtensionChain() {
+        return openAPIExtensions.iterator();
     }
 
     protected abstract List<OpenAPIExtension> getSwaggerExtensions();
@@ -81,15 +287,30 @@ public abstract class AbstractReader {
 
     public abstract Set<Class<? extends Annotation>> getApiAnnotationClasses();
 
-    public abstract void enrich(OpenAPI openAPI, Set<Class<?>> classes);
+    /**
+     * Called with all API classes before any of them is read.
+     */
+    protected void initialize(Set<Class<?>> apiClasses) {
+    }
+
+    /**
+     * Returns the classes that influence the fragments of all API classes,
+     * besides the classes each API class depends on itself.
+     */
+    protected Collection<Class<?>> getSharedDependencies(Set<Class<?>> apiClasses) {
+        return Collections.emptyList();
+    }
+
+    protected abstract void enrich(OpenAPI openAPI, Class<?> apiClass);
 
     private <Single extends Annotation, Plural extends Annotation> List<Single> findRepeatableAnnotation(AnnotatedElement annotatedElement, Class<Single> singleAnnotationClass, Class<Plural> pluralAnnotationClass, Function<Plural, Single[]> valuesMethod) {
         List<Single> singleAnnotations = new LinkedList<>();
-        Plural pluralAnnotation = findMergedAnnotation(annotatedElement, pluralAnnotationClass);
+        AnnotatedElementMetadata annotatedElementMetadata = AnnotatedElementMetadata.of(annotatedElement);
+        Plural pluralAnnotation = annotatedElementMetadata.findMergedAnnotation(pluralAnnotationClass);
         if (pluralAnnotation != null) {
             Collections.addAll(singleAnnotations, valuesMethod.apply(pluralAnnotation));
         } else {
-            Single singleAnnotation = findMergedAnnotation(annotatedElement, singleAnnotationClass);
+            Single singleAnnotation = annotatedElementMetadata.findMergedAnnotation(singleAnnotationClass);
             if (singleAnnotation != null) {
                 singleAnnotations.add(singleAnnotation);
             }
@@ -97,49 +318,39 @@ public abstract class AbstractReader {
         return singleAnnotations;
     }
 
-    private boolean hasValidAnnotations(List<Annotation> parameterAnnotations) {
-        // Because method parameters can contain parameters that are valid, but
-        // not part of the API contract, first check to make sure the parameter
-        // has at lease one annotation before processing it.  Also, check a
-        // whitelist to make sure that the annotation of the parameter is compatible
-
-        List<Type> validParameterAnnotations = new ArrayList<>();
-        validParameterAnnotations.add(BeanParam.class);
-        validParameterAnnotations.add(InjectParam.class);
-        validParameterAnnotations.add(io.swagger.v3.oas.annotations.Parameter.class);
-        validParameterAnnotations.add(PathParam.class);
-        validParameterAnnotations.add(QueryParam.class);
-        validParameterAnnotations.add(HeaderParam.class);
-        validParameterAnnotations.add(FormParam.class);
-        // TODO: Only needed in the SpringReader
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.CookieValue.class);
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.ModelAttribute.class);
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.PathVariable.class);
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.RequestBody.class);
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.RequestHeader.class);
-        validParameterAnnotations.add(org.springframework.web.bind.annotation.RequestParam.class);
-
-        boolean hasValidAnnotation = false;
-        for (Annotation potentialAnnotation : parameterAnnotations) {
-            if (validParameterAnnotations.contains(potentialAnnotation.annotationType())) {
-                hasValidAnnotation = true;
-                break;
-            }
-        }
+    /**
+     * Because method parameters can contain parameters that are valid, but
+     * not part of the API contract, only parameters with at least one of the
+     * registered annotations are processed.
+     */
+    protected void registerParameterAnnotations(ParameterAnnotationTable parameterAnnotationTable) {
+        parameterAnnotationTable.register(BeanParam.class, ParameterKind.bean);
+        parameterAnnotationTable.register(InjectParam.class, ParameterKind.bean);
+        parameterAnnotationTable.register(io.swagger.v3.oas.annotations.Parameter.class, ParameterKind.description);
+        parameterAnnotationTable.register(PathParam.class, ParameterKind.path);
+        parameterAnnotationTable.register(QueryParam.class, ParameterKind.query);
+        parameterAnnotationTable.register(HeaderParam.class, ParameterKind.header);
+        parameterAnnotationTable.register(FormParam.class, ParameterKind.form);
+    }
 
-        return hasValidAnnotation;
+    /**
+     * Annotations that were already classified are returned as they are.
+     */
+    public ParameterAnnotations classifyParameterAnnotations(List<Annotation> annotations) {
+        return parameterAnnotationTable.classify(annotations);
     }
 
     private ResolvedParameter getParameters(Type type, List<Annotation> annotations, Components components) {
         return getParameters(type, annotations, new HashSet<>(), components, new String[0], new String[0], null);
     }
 
-    public ResolvedParameter getParameters(Type type, List<Annotation> annotations, Set<Type> typesToSkip, Components components, String[] classTypes, String[] methodTypes, JsonView jsonViewAnnotation) {
+    public ResolvedParameter getParameters(Type type, List<Annotation> parameterAnnotations, Set<Type> typesToSkip, Components components, String[] classTypes, String[] methodTypes, JsonView jsonViewAnnotation) {
         ResolvedParameter resolvedParameter = new ResolvedParameter();
-        if (!hasValidAnnotations(annotations) || isApiParamHidden(annotations)) {
+        ParameterAnnotations annotations = classifyParameterAnnotations(parameterAnnotations);
+        if (!annotations.hasParameterKinds() || annotations.isHidden()) {
             return resolvedParameter;
         }
-        Iterator<OpenAPIExtension> chain = OpenAPIExtensions.chain();
+        Iterator<OpenAPIExtension> chain = getOpenAPIExtensionChain();
         Class<?> cls = TypeUtils.getRawType(type, type);
         log.debug("Looking for path/query/header/cookie params in " + cls);
 
@@ -152,7 +363,7 @@ public abstract class AbstractReader {
         if (!resolvedParameter.parameters.isEmpty()) {
             for (Parameter parameter : resolvedParameter.parameters) {
                 ParameterProcessor.applyAnnotations(parameter, type, annotations, components, classTypes, methodTypes, jsonViewAnnotation);
-                if (containsJavaDeprecated(annotations)) {
+                if (annotations.getAnnotation(Deprecated.class) != null) {
                     parameter.setDeprecated(true);
                 }
             }
@@ -162,7 +373,7 @@ public abstract class AbstractReader {
                 Parameter param = ParameterProcessor.applyAnnotations(null, type, annotations, components, classTypes, methodTypes, jsonViewAnnotation);
                 if (param != null) {
                     resolvedParameter.requestBody = param;
-                    if (containsJavaDeprecated(annotations)) {
+                    if (annotations.getAnnotation(Deprecated.class) != null) {
                         resolvedParameter.requestBody.setDeprecated(true);
                     }
                 }
@@ -171,33 +382,137 @@ public abstract class AbstractReader {
         return resolvedParameter;
     }
 
-    private boolean containsJavaDeprecated(List<Annotation> annotations) {
-        return annotations.stream().anyMatch(annotation -> annotation.annotationType() == Deprecated.class);
+    private void decorateOperation(Operation operation, Method method) {
+        final Iterator<OpenAPIExtension> chain = getOpenAPIExtensionChain();
+        if (chain.hasNext()) {
+            OpenAPIExtension extension = chain.next();
+            extension.decorateOperation(operation, method, chain);
+        }
     }
 
-    private boolean isApiParamHidden(List<Annotation> parameterAnnotations) {
-        for (Annotation parameterAnnotation : parameterAnnotations) {
-            if (parameterAnnotation instanceof io.swagger.v3.oas.annotations.Parameter) {
-                return ((io.swagger.v3.oas.annotations.Parameter) parameterAnnotation).hidden();
+    /**
+     * The parts of the operation that do not depend on the mapping are read
+     * once per method into an {@link OperationTemplate}, so methods mapped
+     * with several paths or HTTP methods do not resolve their parameters and
+     * request body again for each of them.
+     */
+    protected Operation parseAndAddMethod(OpenAPI openAPI, Class<?> clazz, Method method, String httpMethodName, String fullPath, Collection<Parameter> parentParameters) {
+        OperationTemplate operationTemplate = getOperationTemplate(clazz, method);
+        if (operationTemplate == null) {
+            return null;
+        }
+        Map<String, Schema> referencedSchemas = new HashMap<>(operationTemplate.getReferencedSchemas());
+
+        // Only what differs between the mappings is copied, everything else is shared with the template
+        Operation operation = TypeUtil.copyShallow(operationTemplate.getOperation());
+        if (operation.getOperationId() == null) {
+            operation.setOperationId(generateOperationId(method, httpMethodName));
+        }
+        if (operation.getParameters() != null) {
+            operation.setParameters(new ArrayList<>(operation.getParameters()));
+        }
+        ApiResponses responses = new ApiResponses();
+        responses.putAll(operation.getResponses());
+        responses.setExtensions(operation.getResponses().getExtensions());
+        operation.setResponses(responses);
+
+        for (Tag tag : operationTemplate.getTags()) {
+            if (!containsTag(openAPI, tag.getName())) {
+                openAPI.addTagsItem(tag);
             }
         }
 
-        return false;
+        // Parameters (from parent and code)
+
+        for (Parameter parentParameter : parentParameters) {
+            addParameterIfNotExisting(operation, parentParameter);
+        }
+        for (Parameter parameter : operationTemplate.getParameters()) {
+            addParameterIfNotExisting(operation, parameter);
+        }
+
+        Map<String, String> regexMap = new HashMap<>();
+        String operationPath = PathUtils.parsePath(fullPath, regexMap);
+        if (operation.getParameters() != null) {
+            for (ListIterator<Parameter> parameterIterator = operation.getParameters().listIterator(); parameterIterator.hasNext(); ) {
+                Parameter parameter = parameterIterator.next();
+                String pattern = regexMap.get(parameter.getName());
+                if (pattern != null) {
+                    // The parameter and its schema may be shared with other mappings and parameters
+                    Parameter parameterCopy = TypeUtil.copyShallow(parameter);
+                    Schema schema = TypeUtil.copyShallow(parameter.getSchema());
+                    schema.setPattern(pattern);
+                    parameterCopy.setSchema(schema);
+                    parameterIterator.set(parameterCopy);
+                }
+            }
+        }
+
+        // Responses (from code)
+
+        String responseCode = "200";
+        // TODO: An improvement would be to support generating the schema from code and enrich it with the info from the annotation
+        if (!operation.getResponses().containsKey(responseCode)) {
+            Type responseType = operationTemplate.getResponseType();
+            if (!responseType.equals(Void.class) && !responseType.equals(void.class) && hasResponseContent(responseType, method, httpMethodName)) {
+                ApiResponse response = new ApiResponse();
+                // It's preferred to have a non-empty default description, as certain tools like io.swagger.parser.OpenAPIParser ignore empty strings, leading to a parsing error
+                response.setDescription(contentConfig.getDefaultSuccessfulOperationDescription());
+                Content content = new Content();
+                ResolvedSchema resolvedSchema = TypeUtil.getResolvedSchema(responseType);
+                for (String responseMediaType : operationTemplate.getResponseMediaTypes()) {
+                    MediaType mediaType = content.computeIfAbsent(responseMediaType, mt -> new MediaType());
+                    mediaType.setSchema(resolvedSchema.schema);
+                }
+                response.setContent(content);
+                operation.getResponses().put(responseCode, response);
+                referencedSchemas.putAll(resolvedSchema.referencedSchemas);
+            }
+        }
+
+        updateResponseStatiDescriptions(operation, operationTemplate.getResponseDescriptions());
+
+        if (operation.getResponses().isEmpty()) {
+            operation.getResponses().put("default", new ApiResponse().description(contentConfig.getDefaultSuccessfulOperationDescription()));
+        }
+
+        // Decorate
+
+        decorateOperation(operation, method);
+
+        // Add operation
+
+        PathItem path = openAPI.getPaths().computeIfAbsent(operationPath, op -> new PathItem());
+        PathItem.HttpMethod httpMethod = PathItem.HttpMethod.valueOf(httpMethodName.toUpperCase());
+        path.operation(httpMethod, operation);
+
+        // Referenced schemas
+
+        for (Map.Entry<String, Schema> referencedSchemaEntry : referencedSchemas.entrySet()) {
+            openAPI.getComponents().addSchemas(referencedSchemaEntry.getKey(), referencedSchemaEntry.getValue());
+        }
+
+        return operation;
     }
 
-    private void decorateOperation(Operation operation, Method method) {
-        final Iterator<OpenAPIExtension> chain = OpenAPIExtensions.chain();
-        if (chain.hasNext()) {
-            OpenAPIExtension extension = chain.next();
-            extension.decorateOperation(operation, method, chain);
+    private OperationTemplate getOperationTemplate(Class<?> clazz, Method method) {
+        Map<Method, OperationTemplate> classOperationTemplates = operationTemplates.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        OperationTemplate operationTemplate = classOperationTemplates.get(method);
+        if (operationTemplate == null) {
+            operationTemplate = createOperationTemplate(clazz, method);
+            if (operationTemplate != null) {
+                classOperationTemplates.put(method, operationTemplate);
+            }
         }
+        return operationTemplate;
     }
 
-    protected Operation parseAndAddMethod(OpenAPI openAPI, Class<?> clazz, Method method, String httpMethodName, String fullPath, Collection<Parameter> parentParameters) {
+    private OperationTemplate createOperationTemplate(Class<?> clazz, Method method) {
         Map<String, Schema> referencedSchemas = new HashMap<>();
+        AnnotatedElementMetadata methodMetadata = AnnotatedElementMetadata.of(method);
 
         Operation operation;
-        io.swagger.v3.oas.annotations.Operation operationAnnotation = findMergedAnnotation(method, io.swagger.v3.oas.annotations.Operation.class);
+        io.swagger.v3.oas.annotations.Operation operationAnnotation = methodMetadata.findMergedAnnotation(io.swagger.v3.oas.annotations.Operation.class);
         if (operationAnnotation != null) {
             AnnotationParserResult<Operation> operationResult = AnnotationParser.parseOperation(operationAnnotation);
             if (operationResult == null) {
@@ -210,45 +525,36 @@ public abstract class AbstractReader {
             operation.setResponses(new ApiResponses());
         }
 
-        if (operation.getOperationId() == null) {
-            operation.setOperationId(generateOperationId(method, httpMethodName));
-        }
-
-        io.swagger.v3.oas.annotations.responses.ApiResponses apiResponsesAnnotation = findMergedAnnotation(method, io.swagger.v3.oas.annotations.responses.ApiResponses.class);
+        io.swagger.v3.oas.annotations.responses.ApiResponses apiResponsesAnnotation = methodMetadata.findMergedAnnotation(io.swagger.v3.oas.annotations.responses.ApiResponses.class);
         if (apiResponsesAnnotation != null) {
             AnnotationParserResult<ApiResponses> apiResponsesResult = AnnotationParser.parseApiResponses(apiResponsesAnnotation.value());
             operation.getResponses().putAll(apiResponsesResult.getResult());
             referencedSchemas.putAll(apiResponsesResult.getReferencedSchemas());
         }
 
+        ControllerContext controllerContext = getControllerContext(clazz);
+
         // Tags (from class and method)
 
-        List<io.swagger.v3.oas.annotations.tags.Tag> tagAnnotations = new LinkedList<>();
-        tagAnnotations.addAll(getTagAnnotations(clazz));
-        tagAnnotations.addAll(getTagAnnotations(method));
-        for (io.swagger.v3.oas.annotations.tags.Tag tagAnnotation : tagAnnotations) {
-            String tagName = tagAnnotation.name();
-            if ((operation.getTags() == null) || (!operation.getTags().contains(tagName))) {
-                operation.addTagsItem(tagName);
-            }
-            if ((!tagAnnotation.description().isEmpty())
-             || (!tagAnnotation.externalDocs().description().isEmpty())
-             || (!tagAnnotation.externalDocs().url().isEmpty())
-             || (tagAnnotation.externalDocs().extensions().length > 0)
-             || (tagAnnotation.extensions().length > 0)) {
-                if ((openAPI.getTags() == null) || openAPI.getTags().stream().noneMatch(tag -> tag.getName().equals(tagName))) {
-                    Tag tag = AnnotationParser.parseTag(tagAnnotation);
-                    openAPI.addTagsItem(tag);
-                }
+        List<Tag> tags = new ArrayList<>(controllerContext.getTags());
+        for (String tagName : controllerContext.getTagNames()) {
+            addTagName(operation, tagName);
+        }
+        for (io.swagger.v3.oas.annotations.tags.Tag tagAnnotation : getTagAnnotations(method)) {
+            addTagName(operation, tagAnnotation.name());
+            if (hasTagDetails(tagAnnotation) && tags.stream().noneMatch(tag -> tag.getName().equals(tagAnnotation.name()))) {
+                tags.add(AnnotationParser.parseTag(tagAnnotation));
             }
         }
 
         // SecurityRequirements (from class and method)
 
-        List<io.swagger.v3.oas.annotations.security.SecurityRequirement> securityRequirementAnnotations = new LinkedList<>();
-        securityRequirementAnnotations.addAll(getSecurityRequirementAnnotations(clazz));
-        securityRequirementAnnotations.addAll(getSecurityRequirementAnnotations(method));
-        for (io.swagger.v3.oas.annotations.security.SecurityRequirement securityRequirementAnnotation : securityRequirementAnnotations) {
+        for (SecurityRequirement securityRequirement : controllerContext.getSecurityRequirements()) {
+            SecurityRequirement securityRequirementCopy = new SecurityRequirement();
+            securityRequirementCopy.putAll(securityRequirement);
+            operation.addSecurityItem(securityRequirementCopy);
+        }
+        for (io.swagger.v3.oas.annotations.security.SecurityRequirement securityRequirementAnnotation : getSecurityRequirementAnnotations(method)) {
             SecurityRequirement securityRequirement = AnnotationParser.parseSecurityRequirement(securityRequirementAnnotation);
             operation.addSecurityItem(securityRequirement);
         }
@@ -257,29 +563,27 @@ public abstract class AbstractReader {
 
         // TODO: Use consumes
         Set<String> requestMediaTypes = new HashSet<>();
-        requestMediaTypes.addAll(getConsumes(clazz));
+        requestMediaTypes.addAll(controllerContext.getConsumes());
         requestMediaTypes.addAll(getConsumes(method));
 
-        for (Parameter parentParameter : parentParameters) {
-            addParameterIfNotExisting(operation, parentParameter);
-        }
-
         Type[] genericParameterTypes = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = AnnotatedMethodService.findAllParamAnnotations(method);
+        List<List<Annotation>> paramAnnotations = AnnotatedMethodService.findAllParamAnnotations(method);
 
-        DefaultParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
-        String[] defaultParameterNames = parameterNameDiscoverer.getParameterNames(method);
+        String[] defaultParameterNames = ParameterNameTable.getParameterNames(method);
 
+        // The schemas referenced by the parameters are collected separately, as the template may be used for another document
+        Components components = new Components();
+        List<Parameter> parameters = new ArrayList<>();
         for (int i = 0; i < genericParameterTypes.length; i++) {
             Type type = genericParameterTypes[i];
-            List<Annotation> annotations = Arrays.asList(paramAnnotations[i]);
-            ResolvedParameter resolvedParameter = getParameters(type, annotations, openAPI.getComponents());
+            List<Annotation> annotations = paramAnnotations.get(i);
+            ResolvedParameter resolvedParameter = getParameters(type, annotations, components);
 
             for (Parameter parameter : resolvedParameter.parameters) {
                 if (StringUtils.isEmpty(parameter.getName())) {
                     parameter.setName(defaultParameterNames[i]);
                 }
-                addParameterIfNotExisting(operation, parameter);
+                parameters.add(parameter);
             }
 
             if (resolvedParameter.requestBody != null) {
@@ -287,75 +591,76 @@ public abstract class AbstractReader {
                 operation.setRequestBody(requestBody);
             }
         }
-
-        Map<String, String> regexMap = new HashMap<>();
-        String operationPath = PathUtils.parsePath(fullPath, regexMap);
-        if (operation.getParameters() != null) {
-            for (Parameter parameter : operation.getParameters()) {
-                String pattern = regexMap.get(parameter.getName());
-                if (pattern != null) {
-                    parameter.getSchema().setPattern(pattern);
-                }
-            }
+        if (components.getSchemas() != null) {
+            referencedSchemas.putAll(components.getSchemas());
         }
 
         // Responses (from code)
 
         Set<String> responseMediaTypes = new HashSet<>();
-        responseMediaTypes.addAll(getProduces(clazz));
+        responseMediaTypes.addAll(controllerContext.getProduces());
         responseMediaTypes.addAll(getProduces(method));
         if (responseMediaTypes.isEmpty()) {
             responseMediaTypes.add("application/json");
         }
 
-        String responseCode = "200";
-        // TODO: An improvement would be to support generating the schema from code and enrich it with the info from the annotation
-        if (!operation.getResponses().containsKey(responseCode)) {
-            Type responseType = resolveResponseType(method.getGenericReturnType());
-            if (!responseType.equals(Void.class) && !responseType.equals(void.class) && hasResponseContent(responseType, method, httpMethodName)) {
-                ApiResponse response = new ApiResponse();
-                // It's preferred to have a non-empty default description, as certain tools like io.swagger.parser.OpenAPIParser ignore empty strings, leading to a parsing error
-                response.setDescription(contentConfig.getDefaultSuccessfulOperationDescription());
-                Content content = new Content();
-                ResolvedSchema resolvedSchema = TypeUtil.getResolvedSchema(responseType);
-                for (String responseMediaType : responseMediaTypes) {
-                    MediaType mediaType = content.computeIfAbsent(responseMediaType, mt -> new MediaType());
-                    mediaType.setSchema(resolvedSchema.schema);
-                }
-                response.setContent(content);
-                operation.getResponses().put(responseCode, response);
-                referencedSchemas.putAll(resolvedSchema.referencedSchemas);
-            }
-        }
-
-        Map<Integer, String> responseDescriptions = getResponseDescriptions(method);
-        updateResponseStatiDescriptions(operation, responseDescriptions);
-
-        if (operation.getResponses().isEmpty()) {
-            operation.getResponses().put("default", new ApiResponse().description(contentConfig.getDefaultSuccessfulOperationDescription()));
-        }
-
-        if (findAnnotation(method, Deprecated.class) != null) {
+        if (methodMetadata.findAnnotation(Deprecated.class) != null) {
             operation.setDeprecated(true);
         }
 
-        // Decorate
-
-        decorateOperation(operation, method);
-
-        // Add operation
+        return new OperationTemplate(
+                operation,
+                Collections.unmodifiableList(parameters),
+                Collections.unmodifiableList(tags),
+                Collections.unmodifiableMap(referencedSchemas),
+                resolveResponseType(method.getGenericReturnType()),
+                Collections.unmodifiableSet(responseMediaTypes),
+                Collections.unmodifiableMap(getResponseDescriptions(method))
+        );
+    }
 
-        PathItem path = openAPI.getPaths().computeIfAbsent(operationPath, op -> new PathItem());
-        PathItem.HttpMethod httpMethod = PathItem.HttpMethod.valueOf(httpMethodName.toUpperCase());
-        path.operation(httpMethod, operation);
+    private ControllerContext getControllerContext(Class<?> clazz) {
+        return controllerContexts.computeIfAbsent(clazz, this::createControllerContext);
+    }
 
-        // Referenced schemas
+    private ControllerContext createControllerContext(Class<?> clazz) {
+        List<String> tagNames = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>();
+        for (io.swagger.v3.oas.annotations.tags.Tag tagAnnotation : getTagAnnotations(clazz)) {
+            tagNames.add(tagAnnotation.name());
+            if (hasTagDetails(tagAnnotation)) {
+                tags.add(AnnotationParser.parseTag(tagAnnotation));
+            }
+        }
+        List<SecurityRequirement> securityRequirements = new ArrayList<>();
+        for (io.swagger.v3.oas.annotations.security.SecurityRequirement securityRequirementAnnotation : getSecurityRequirementAnnotations(clazz)) {
+            securityRequirements.add(AnnotationParser.parseSecurityRequirement(securityRequirementAnnotation));
+        }
+        return new ControllerContext(
+                Collections.unmodifiableList(tagNames),
+                Collections.unmodifiableList(tags),
+                Collections.unmodifiableList(securityRequirements),
+                Collections.unmodifiableSet(new LinkedHashSet<>(getConsumes(clazz))),
+                Collections.unmodifiableSet(new LinkedHashSet<>(getProduces(clazz)))
+        );
+    }
 
-        for (Map.Entry<String, Schema> referencedSchemaEntry : referencedSchemas.entrySet()) {
-            openAPI.getComponents().addSchemas(referencedSchemaEntry.getKey(), referencedSchemaEntry.getValue());
+    private static void addTagName(Operation operation, String tagName) {
+        if ((operation.getTags() == null) || (!operation.getTags().contains(tagName))) {
+            operation.addTagsItem(tagName);
         }
+    }
 
-        return operation;
+    private static boolean containsTag(OpenAPI openAPI, String tagName) {
+        return (openAPI.getTags() != null) && openAPI.getTags().stream().anyMatch(tag -> tag.getName().equals(tagName));
+    }
+
+    private static boolean hasTagDetails(io.swagger.v3.oas.annotations.tags.Tag tagAnnotation) {
+        return (!tagAnnotation.description().isEmpty())
+            || (!tagAnnotation.externalDocs().description().isEmpty())
+            || (!tagAnnotation.externalDocs().url().isEmpty())
+            || (tagAnnotation.externalDocs().extensions().length > 0)
+            || (tagAnnotation.extensions().length > 0);
     }
 
     private String generateOperationId(Method method, String httpMethodName) {
@@ -420,8 +725,11 @@ public abstract class AbstractReader {
             String codeText = "" + code;
             ApiResponse response = responses.get(codeText);
             if (response != null) {
-                if (StringUtils.isNotEmpty(description)) {
-                    response.setDescription(description);
+                if (StringUtils.isNotEmpty(description) && !description.equals(response.getDescription())) {
+                    // The response may be shared with the operation template
+                    ApiResponse responseCopy = TypeUtil.copyShallow(response);
+                    responseCopy.setDescription(description);
+                    responses.put(codeText, responseCopy);
                 }
             } else {
                 response = new ApiResponse();
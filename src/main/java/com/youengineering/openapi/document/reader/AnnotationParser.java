@@ -245,7 +245,8 @@ class AnnotationParser {
         Class<?> implementation = schemaAnnotation.implementation();
         if (implementation != Void.class) {
             ResolvedSchema resolvedSchema = TypeUtil.getResolvedSchema(implementation);
-            schema = resolvedSchema.schema;
+            // The schema resolved for a model is its component definition itself, which the annotation must not change
+            schema = TypeUtil.copySchema(resolvedSchema.schema);
             referencedSchemas = resolvedSchema.referencedSchemas;
 
         } else {
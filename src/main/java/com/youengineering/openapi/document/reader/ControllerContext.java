@@ -0,0 +1,29 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What a controller class contributes to each of its operations. It is
+ * computed once per class and shared by all operations of the class, so
+ * its collections are unmodifiable.
+ */
+@AllArgsConstructor
+@Getter
+class ControllerContext {
+
+    private final List<String> tagNames;
+    /**
+     * Only the tags with details beyond their name, which are added to the document.
+     */
+    private final List<Tag> tags;
+    private final List<SecurityRequirement> securityRequirements;
+    private final Set<String> consumes;
+    private final Set<String> produces;
+
+}
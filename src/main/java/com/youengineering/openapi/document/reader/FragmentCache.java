@@ -0,0 +1,93 @@
+package com.youengineering.openapi.document.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the contribution of each API class to the document (its paths,
+ * operations, tags and referenced schemas) as a JSON fragment, keyed by a
+ * hash over everything the contribution was derived from. Fragments of API
+ * classes that no longer exist are removed after each run.
+ */
+public class FragmentCache {
+
+    private static final int VERSION = 2;
+    private static final String FILE_SUFFIX = ".json";
+
+    private final Path directory;
+    private final Log log;
+    private final Set<String> usedFileNames = ConcurrentHashMap.newKeySet();
+
+    public FragmentCache(Path directory, Log log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /**
+     * Returns the stored fragment of the API class, or null if there is none
+     * for the given key.
+     */
+    OpenAPI get(Class<?> apiClass, String key) {
+        Path file = getFile(apiClass);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            JsonNode node = ModelMapper.INSTANCE.readTree(file.toFile());
+            if ((node.path("version").asInt() != VERSION) || !key.equals(node.path("key").asText())) {
+                return null;
+            }
+            return ModelMapper.INSTANCE.treeToValue(node.get("fragment"), OpenAPI.class);
+        } catch (IOException ex) {
+            log.debug(String.format("Ignoring unreadable fragment %s: %s", file, ex.getMessage()));
+            return null;
+        }
+    }
+
+    void put(Class<?> apiClass, String key, OpenAPI fragment) {
+        Path file = getFile(apiClass);
+        ObjectNode node = ModelMapper.INSTANCE.createObjectNode();
+        node.put("version", VERSION);
+        node.put("key", key);
+        node.set("fragment", ModelMapper.INSTANCE.valueToTree(fragment));
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            ModelMapper.INSTANCE.writeValue(temporaryFile.toFile(), node);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.warn(String.format("Unable to write fragment %s: %s", file, ex.getMessage()));
+        }
+    }
+
+    void removeUnusedFragments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!usedFileNames.contains(file.getFileName().toString())) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Unable to remove unused fragments: " + ex.getMessage());
+        }
+    }
+
+    private Path getFile(Class<?> apiClass) {
+        String fileName = apiClass.getName() + FILE_SUFFIX;
+        usedFileNames.add(fileName);
+        return directory.resolve(fileName);
+    }
+}
@@ -0,0 +1,117 @@
+package com.youengineering.openapi.document.reader;
+
+import com.google.common.collect.Iterators;
+import io.swagger.v3.core.converter.AnnotatedType;
+import io.swagger.v3.core.converter.ModelConverter;
+import io.swagger.v3.core.converter.ModelConverterContext;
+import io.swagger.v3.core.converter.ModelConverters;
+import io.swagger.v3.core.converter.ResolvedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The custom model converters of one generation run, together with the
+ * schemas resolved through them. Instead of adding the custom converters to
+ * the JVM-wide {@link ModelConverters} instance, which is shared by all
+ * executions, a single {@link PipelineModelConverter} is registered there
+ * once and delegates to the pipeline bound to the current thread. This also
+ * covers the resolutions Swagger itself starts, e.g. for request bodies.
+ * Schemas resolved by {@link TypeUtil} are cached per pipeline.
+ */
+public class ModelConverterPipeline {
+
+    private static final ThreadLocal<ModelConverterPipeline> CURRENT = new ThreadLocal<>();
+    private static final ModelConverterPipeline EMPTY = new ModelConverterPipeline(Collections.emptyList());
+
+    private final List<ModelConverter> converters;
+    private final ResolvedSchemaCache resolvedSchemaCache = new ResolvedSchemaCache();
+
+    /**
+     * Converters are deduplicated by class, keeping the last occurrence. As
+     * with {@link ModelConverters#addConverter(ModelConverter)}, converters
+     * added later take precedence.
+     */
+    public ModelConverterPipeline(List<ModelConverter> converters) {
+        Map<Class<?>, ModelConverter> convertersByClass = new LinkedHashMap<>();
+        for (ModelConverter converter : converters) {
+            convertersByClass.remove(converter.getClass());
+            convertersByClass.put(converter.getClass(), converter);
+        }
+        List<ModelConverter> orderedConverters = new ArrayList<>(convertersByClass.values());
+        Collections.reverse(orderedConverters);
+        this.converters = Collections.unmodifiableList(orderedConverters);
+    }
+
+    public List<ModelConverter> getConverters() {
+        return converters;
+    }
+
+    public static ModelConverterPipeline current() {
+        ModelConverterPipeline pipeline = CURRENT.get();
+        return ((pipeline != null) ? pipeline : EMPTY);
+    }
+
+    /**
+     * Makes this the pipeline of the current thread until the returned binding is closed.
+     */
+    public Binding bind() {
+        PipelineModelConverter.register();
+        ModelConverterPipeline previousPipeline = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previousPipeline != null) {
+                CURRENT.set(previousPipeline);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Schemas are only cached for bound pipelines, as they belong to the
+     * classes of one run.
+     */
+    ResolvedSchema getResolvedSchema(Type type, Function<Type, ResolvedSchema> resolver) {
+        if (this == EMPTY) {
+            return resolver.apply(type);
+        }
+        return resolvedSchemaCache.get(type, resolver);
+    }
+
+    ResolvedSchemaCache getResolvedSchemaCache() {
+        return resolvedSchemaCache;
+    }
+
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    static class PipelineModelConverter implements ModelConverter {
+
+        private static boolean registered;
+
+        private static synchronized void register() {
+            if (!registered) {
+                ModelConverters modelConverters = ModelConverters.getInstance();
+                if (modelConverters.getConverters().stream().noneMatch(converter -> converter instanceof PipelineModelConverter)) {
+                    modelConverters.addConverter(new PipelineModelConverter());
+                }
+                registered = true;
+            }
+        }
+
+        @Override
+        public Schema resolve(AnnotatedType type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+            Iterator<ModelConverter> pipelineChain = Iterators.concat(current().converters.iterator(), chain);
+            if (pipelineChain.hasNext()) {
+                return pipelineChain.next().resolve(type, context, pipelineChain);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.youengineering.openapi.document.reader;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The mapper models are copied and stored in the fragment cache with. The
+ * JSON document is written by a plain bean mapper, so a round trip through
+ * one keeps every property that ends up in the document. Swagger's
+ * {@code Json.mapper()} would add the jsonSchema property to the object
+ * schemas it reads, which would then be written as well. Only the extensions
+ * of {@link ApiResponses}, which a bean mapper treats as a plain map, are
+ * mapped explicitly.
+ */
+class ModelMapper {
+
+    private static final String EXTENSION_PREFIX = "x-";
+
+    static final ObjectMapper INSTANCE = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new SimpleModule()
+                    .addSerializer(ApiResponses.class, new ApiResponsesSerializer())
+                    .addDeserializer(ApiResponses.class, new ApiResponsesDeserializer()));
+
+    private static class ApiResponsesSerializer extends StdSerializer<ApiResponses> {
+
+        ApiResponsesSerializer() {
+            super(ApiResponses.class);
+        }
+
+        @Override
+        public void serialize(ApiResponses apiResponses, JsonGenerator generator, SerializerProvider serializerProvider) throws IOException {
+            generator.writeStartObject();
+            for (Map.Entry<String, ApiResponse> apiResponseEntry : apiResponses.entrySet()) {
+                generator.writeObjectField(apiResponseEntry.getKey(), apiResponseEntry.getValue());
+            }
+            if (apiResponses.getExtensions() != null) {
+                for (Map.Entry<String, Object> extensionEntry : apiResponses.getExtensions().entrySet()) {
+                    generator.writeObjectField(extensionEntry.getKey(), extensionEntry.getValue());
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private static class ApiResponsesDeserializer extends StdDeserializer<ApiResponses> {
+
+        ApiResponsesDeserializer() {
+            super(ApiResponses.class);
+        }
+
+        @Override
+        public ApiResponses deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            ApiResponses apiResponses = new ApiResponses();
+            JsonNode node = parser.readValueAsTree();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().startsWith(EXTENSION_PREFIX)) {
+                    apiResponses.addExtension(field.getKey(), parser.getCodec().treeToValue(field.getValue(), Object.class));
+                } else {
+                    apiResponses.addApiResponse(field.getKey(), parser.getCodec().treeToValue(field.getValue(), ApiResponse.class));
+                }
+            }
+            return apiResponses;
+        }
+    }
+}
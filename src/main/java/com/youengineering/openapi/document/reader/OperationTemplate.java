@@ -0,0 +1,41 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything about the operation of a method that does not depend on the
+ * path, HTTP method or parent parameters it is mapped with. It is built
+ * once per method. Each mapping gets a shallow copy of the operation, which
+ * shares the nested models with the template, so none of them must be
+ * modified.
+ */
+@AllArgsConstructor
+@Getter
+class OperationTemplate {
+
+    /**
+     * The operation as read from the annotations, with the request body, but
+     * without the parameters read from the method.
+     */
+    private final Operation operation;
+    private final List<Parameter> parameters;
+    /**
+     * The tags with details beyond their name, which are added to the document.
+     */
+    private final List<Tag> tags;
+    private final Map<String, Schema> referencedSchemas;
+    private final Type responseType;
+    private final Set<String> responseMediaTypes;
+    private final Map<Integer, String> responseDescriptions;
+
+}
@@ -0,0 +1,35 @@
+package com.youengineering.openapi.document.reader;
+
+import java.lang.annotation.Annotation;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parameter annotations a reader understands, see
+ * {@link AbstractReader#registerParameterAnnotations(ParameterAnnotationTable)}.
+ * Parameters without any of them, or with only
+ * {@link ParameterKind#undocumented} ones, are not part of the API.
+ */
+public class ParameterAnnotationTable {
+
+    private final Map<Class<? extends Annotation>, ParameterKind> parameterKinds = new IdentityHashMap<>();
+
+    public void register(Class<? extends Annotation> annotationType, ParameterKind parameterKind) {
+        parameterKinds.put(annotationType, parameterKind);
+    }
+
+    public ParameterKind getParameterKind(Class<? extends Annotation> annotationType) {
+        return parameterKinds.get(annotationType);
+    }
+
+    /**
+     * Annotations that were already classified are returned as they are.
+     */
+    public ParameterAnnotations classify(List<Annotation> annotations) {
+        if (annotations instanceof ParameterAnnotations) {
+            return (ParameterAnnotations) annotations;
+        }
+        return new ParameterAnnotations(annotations, this);
+    }
+}
@@ -0,0 +1,80 @@
+package com.youengineering.openapi.document.reader;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * The annotations of a method parameter, classified in a single pass. The
+ * reader passes them down the extension chain in place of the plain list,
+ * so that the extensions do not have to look through the list again.
+ */
+public class ParameterAnnotations extends AbstractList<Annotation> {
+
+    private final List<Annotation> annotations;
+    private final Map<Class<?>, Annotation> annotationsByType = new IdentityHashMap<>();
+    private final Set<ParameterKind> parameterKinds = EnumSet.noneOf(ParameterKind.class);
+    private boolean hidden;
+
+    ParameterAnnotations(List<Annotation> annotations, ParameterAnnotationTable parameterAnnotationTable) {
+        this.annotations = annotations;
+        boolean parameterAnnotationFound = false;
+        for (Annotation annotation : annotations) {
+            if (annotation == null) {
+                continue;
+            }
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            annotationsByType.put(annotationType, annotation);
+            ParameterKind parameterKind = parameterAnnotationTable.getParameterKind(annotationType);
+            if (parameterKind != null) {
+                parameterKinds.add(parameterKind);
+            }
+            // The first @Parameter decides, i.e. the one of the topmost overridden method
+            if ((annotation instanceof io.swagger.v3.oas.annotations.Parameter) && !parameterAnnotationFound) {
+                hidden = ((io.swagger.v3.oas.annotations.Parameter) annotation).hidden();
+                parameterAnnotationFound = true;
+            }
+        }
+    }
+
+    @Override
+    public Annotation get(int index) {
+        return annotations.get(index);
+    }
+
+    @Override
+    public int size() {
+        return annotations.size();
+    }
+
+    /**
+     * If an annotation type occurs more than once, the last one is returned.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A getAnnotation(Class<A> annotationType) {
+        return (A) annotationsByType.get(annotationType);
+    }
+
+    public boolean hasParameterKind(ParameterKind parameterKind) {
+        return parameterKinds.contains(parameterKind);
+    }
+
+    /**
+     * Whether the parameter is part of the API, i.e. it has an annotation
+     * of a kind other than {@link ParameterKind#undocumented}.
+     */
+    public boolean hasParameterKinds() {
+        return parameterKinds.size() > (parameterKinds.contains(ParameterKind.undocumented) ? 1 : 0);
+    }
+
+    /**
+     * Whether an annotation binds the parameter to a part of the request,
+     * instead of only describing it.
+     */
+    public boolean isBound() {
+        return parameterKinds.size() > (parameterKinds.contains(ParameterKind.description) ? 1 : 0);
+    }
+
+    public boolean isHidden() {
+        return hidden;
+    }
+}
@@ -0,0 +1,26 @@
+package com.youengineering.openapi.document.reader;
+
+/**
+ * What an annotation of a method parameter makes of the parameter.
+ */
+public enum ParameterKind {
+
+    path,
+    query,
+    header,
+    cookie,
+    form,
+    body,
+    bean,
+    /**
+     * Only describes the parameter, e.g. Swagger's {@code @Parameter}.
+     */
+    description,
+    /**
+     * Binds the parameter to a part of the request that has no parameter in
+     * the document, e.g. Spring's {@code @RequestPart}. On its own, such an
+     * annotation does not make the parameter part of the API.
+     */
+    undocumented
+
+}
@@ -0,0 +1,55 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.core.converter.ResolvedSchema;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Resolved schemas keyed by their full generic type. Callers get their own
+ * copy of the top-level schema, which they may enrich (e.g. with a
+ * description), while the referenced schemas are shared, as they only end
+ * up in the components.
+ */
+class ResolvedSchemaCache {
+
+    private final Map<Type, ResolvedSchema> resolvedSchemas = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    ResolvedSchema get(Type type, Function<Type, ResolvedSchema> resolver) {
+        ResolvedSchema resolvedSchema = resolvedSchemas.get(type);
+        if (resolvedSchema != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            resolvedSchema = resolver.apply(type);
+            if (resolvedSchema == null) {
+                return null;
+            }
+            resolvedSchemas.put(type, resolvedSchema);
+        }
+        return copy(resolvedSchema);
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    private static ResolvedSchema copy(ResolvedSchema resolvedSchema) {
+        ResolvedSchema resolvedSchemaCopy = new ResolvedSchema();
+        if (resolvedSchema.schema != null) {
+            resolvedSchemaCopy.schema = TypeUtil.copySchema(resolvedSchema.schema);
+        }
+        resolvedSchemaCopy.referencedSchemas = ((resolvedSchema.referencedSchemas != null) ? new HashMap<>(resolvedSchema.referencedSchemas) : new HashMap<>());
+        return resolvedSchemaCopy;
+    }
+}
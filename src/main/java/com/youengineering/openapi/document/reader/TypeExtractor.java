@@ -6,48 +6,55 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
 public class TypeExtractor {
 
+    // Keyed by class, without keeping the classes of the project from being unloaded
+    private static final ClassValue<List<TypeWithAnnotations>> TYPES_WITH_ANNOTATIONS = new ClassValue<List<TypeWithAnnotations>>() {
+
+        @Override
+        protected List<TypeWithAnnotations> computeValue(Class<?> type) {
+            List<TypeWithAnnotations> typesWithAnnotations = new ArrayList<>();
+            addPropertyTypes(type, typesWithAnnotations);
+            addMethodParameterTypes(type, typesWithAnnotations);
+            addConstructorParameterTypes(type, typesWithAnnotations);
+            return Collections.unmodifiableList(Arrays.asList(typesWithAnnotations.toArray(new TypeWithAnnotations[0])));
+        }
+    };
+
+    /**
+     * The types are only extracted once per class, so the returned list is
+     * shared and unmodifiable.
+     */
     public static List<TypeWithAnnotations> extractTypes(Class<?> clazz) {
-        List<TypeWithAnnotations> typesWithAnnotations = new LinkedList<>();
-        typesWithAnnotations.addAll(getPropertyTypes(clazz));
-        typesWithAnnotations.addAll(getMethodParameterTypes(clazz));
-        typesWithAnnotations.addAll(getConstructorParameterTypes(clazz));
-        return typesWithAnnotations;
+        return TYPES_WITH_ANNOTATIONS.get(clazz);
     }
 
-    private static List<TypeWithAnnotations> getPropertyTypes(Class<?> clazz) {
-        List<TypeWithAnnotations> typesWithAnnotations = new LinkedList<>();
+    private static void addPropertyTypes(Class<?> clazz, List<TypeWithAnnotations> typesWithAnnotations) {
         for (Field field : getDeclaredAndInheritedMembers(clazz, Class::getDeclaredFields)) {
             Type type = field.getGenericType();
             List<Annotation> annotations = Arrays.asList(field.getAnnotations());
             typesWithAnnotations.add(new TypeWithAnnotations(type, annotations));
         }
-        return typesWithAnnotations;
     }
 
-    private static List<TypeWithAnnotations> getMethodParameterTypes(Class<?> clazz) {
-        List<TypeWithAnnotations> typesWithAnnotations = new LinkedList<>();
+    private static void addMethodParameterTypes(Class<?> clazz, List<TypeWithAnnotations> typesWithAnnotations) {
         // For methods we will only examine setters and will only look at the annotations on the parameter, not the method itself
         for (Method method : getDeclaredAndInheritedMembers(clazz, Class::getDeclaredMethods)) {
-            Type[] parameterTypes = method.getGenericParameterTypes();
             // Skip methods that don't look like setters
-            if (parameterTypes.length != 1 || method.getReturnType() != void.class) {
+            if (method.getParameterCount() != 1 || method.getReturnType() != void.class) {
                 continue;
             }
-            Type type = parameterTypes[0];
-            List<Annotation> annotations = Arrays.asList(AnnotatedMethodService.findAllParamAnnotations(method)[0]);
+            Type type = method.getGenericParameterTypes()[0];
+            List<Annotation> annotations = AnnotatedMethodService.findAllParamAnnotations(method).get(0);
             typesWithAnnotations.add(new TypeWithAnnotations(type, annotations));
         }
-        return typesWithAnnotations;
     }
 
-    private static List<TypeWithAnnotations> getConstructorParameterTypes(Class<?> clazz) {
-        List<TypeWithAnnotations> typesWithAnnotations = new LinkedList<>();
+    private static void addConstructorParameterTypes(Class<?> clazz, List<TypeWithAnnotations> typesWithAnnotations) {
         for (Constructor<?> constructor : getDeclaredAndInheritedMembers(clazz, Class::getDeclaredConstructors)) {
             Type[] parameterTypes = constructor.getGenericParameterTypes();
             Annotation[][] parameterAnnotations = constructor.getParameterAnnotations();
@@ -57,7 +64,6 @@ public class TypeExtractor {
                 typesWithAnnotations.add(new TypeWithAnnotations(type, annotations));
             }
         }
-        return typesWithAnnotations;
     }
 
     private static <T extends AccessibleObject> List<T> getDeclaredAndInheritedMembers(Class<?> clazz, Function<Class, T[]> getDeclaredMembers) {
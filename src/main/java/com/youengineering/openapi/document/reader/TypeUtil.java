@@ -1,5 +1,6 @@
 package com.youengineering.openapi.document.reader;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.core.converter.ModelConverters;
 import io.swagger.v3.core.converter.ResolvedSchema;
 import io.swagger.v3.core.util.PrimitiveType;
@@ -8,14 +9,34 @@ import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.StringSchema;
 import org.apache.maven.plugin.logging.Log;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 
 public class TypeUtil {
 
+    private static final ClassValue<List<Field>> INSTANCE_FIELDS = new ClassValue<List<Field>>() {
+
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> declaringType = type; declaringType != Object.class; declaringType = declaringType.getSuperclass()) {
+                for (Field field : declaringType.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        }
+    };
+
     public static Schema getPrimitiveSchema(Type type, Log log) {
         Schema primitiveTypeSchema = PrimitiveType.createProperty(type);
         if (primitiveTypeSchema != null) {
@@ -26,7 +47,57 @@ public class TypeUtil {
         }
     }
 
+    public static Schema getPrimitiveSchema(Type type, String defaultValue, Log log) {
+        Schema primitiveTypeSchema = getPrimitiveSchema(type, log);
+        if (defaultValue != null) {
+            primitiveTypeSchema.setDefault(defaultValue);
+        }
+        return primitiveTypeSchema;
+    }
+
+    public static Schema copySchema(Schema schema) {
+        try {
+            return ModelMapper.INSTANCE.treeToValue(ModelMapper.INSTANCE.valueToTree(schema), schema.getClass());
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to copy schema " + schema.getName(), ex);
+        }
+    }
+
+    /**
+     * Copies any other model of the document, e.g. an operation.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copyModel(T model) {
+        try {
+            return ModelMapper.INSTANCE.treeToValue(ModelMapper.INSTANCE.valueToTree(model), (Class<T>) model.getClass());
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to copy " + model.getClass().getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * Copies only the model itself, so the copy shares its nested models,
+     * lists and maps with the original. Use it for a model whose own
+     * properties are about to change.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copyShallow(T model) {
+        try {
+            T modelCopy = (T) model.getClass().getConstructor().newInstance();
+            for (Field field : INSTANCE_FIELDS.get(model.getClass())) {
+                field.set(modelCopy, field.get(model));
+            }
+            return modelCopy;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to copy " + model.getClass().getSimpleName(), ex);
+        }
+    }
+
     public static ResolvedSchema getResolvedSchema(Type type) {
+        return ModelConverterPipeline.current().getResolvedSchema(type, TypeUtil::resolveSchema);
+    }
+
+    private static ResolvedSchema resolveSchema(Type type) {
         Schema primitiveTypeSchema = PrimitiveType.createProperty(type);
         if (primitiveTypeSchema != null) {
             ResolvedSchema resolvedSchema = new ResolvedSchema();
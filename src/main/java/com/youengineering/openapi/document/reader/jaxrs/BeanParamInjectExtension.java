@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.youengineering.openapi.document.reader.AbstractReaderOpenAPIExtension;
 import com.youengineering.openapi.document.reader.TypeExtractor;
 import com.youengineering.openapi.document.reader.TypeWithAnnotations;
+import com.google.common.collect.Iterators;
 import com.sun.jersey.api.core.InjectParam;
 import com.sun.jersey.core.header.FormDataContentDisposition;
 import io.swagger.v3.jaxrs2.ResolvedParameter;
@@ -15,10 +16,7 @@ import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * This extension extracts the parameters inside a {@code @BeanParam} by
@@ -58,8 +56,7 @@ public class BeanParamInjectExtension extends AbstractReaderOpenAPIExtension {
              * classes are shared with SwaggerReaderTest and Swagger's own logic
              * doesn't prevent this problem.
              */
-            Set<Type> recurseTypesToSkip = new HashSet<>(typesToSkip);
-            recurseTypesToSkip.add(clazz);
+            Set<Type> recurseTypesToSkip = new TypesToSkip(typesToSkip, clazz);
 
             ResolvedParameter additionalResolvedParameter = reader.getParameters(type, annotations, recurseTypesToSkip, components, new String[0], new String[0], jsonViewAnnotation);
             resolvedParameter.parameters.addAll(additionalResolvedParameter.parameters);
@@ -74,4 +71,48 @@ public class BeanParamInjectExtension extends AbstractReaderOpenAPIExtension {
     public boolean shouldIgnoreClass(Class<?> clazz) {
         return (clazz == FormDataContentDisposition.class);
     }
+
+    /**
+     * The types to skip of the caller plus the bean type, without copying
+     * the caller's types. Types added while recursing, as the extensions do
+     * for ignored types, are only added to this set.
+     */
+    private static class TypesToSkip extends AbstractSet<Type> {
+
+        private final Set<Type> parentTypesToSkip;
+        private final Type beanType;
+        private Set<Type> addedTypes = Collections.emptySet();
+
+        private TypesToSkip(Set<Type> parentTypesToSkip, Type beanType) {
+            this.parentTypesToSkip = parentTypesToSkip;
+            this.beanType = beanType;
+        }
+
+        @Override
+        public boolean contains(Object type) {
+            return beanType.equals(type) || addedTypes.contains(type) || parentTypesToSkip.contains(type);
+        }
+
+        @Override
+        public boolean add(Type type) {
+            if (contains(type)) {
+                return false;
+            }
+            if (addedTypes.isEmpty()) {
+                addedTypes = new HashSet<>();
+            }
+            return addedTypes.add(type);
+        }
+
+        @Override
+        public Iterator<Type> iterator() {
+            Iterator<Type> beanTypeIterator = (parentTypesToSkip.contains(beanType) ? Collections.emptyIterator() : Collections.singleton(beanType).iterator());
+            return Iterators.unmodifiableIterator(Iterators.concat(parentTypesToSkip.iterator(), beanTypeIterator, addedTypes.iterator()));
+        }
+
+        @Override
+        public int size() {
+            return parentTypesToSkip.size() + (parentTypesToSkip.contains(beanType) ? 0 : 1) + addedTypes.size();
+        }
+    }
 }
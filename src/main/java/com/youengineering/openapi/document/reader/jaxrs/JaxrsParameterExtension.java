@@ -1,16 +1,16 @@
 package com.youengineering.openapi.document.reader.jaxrs;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.youengineering.openapi.document.reader.AbstractReaderOpenAPIExtension;
+import com.youengineering.openapi.document.reader.ParameterAnnotations;
 import com.youengineering.openapi.document.reader.TypeUtil;
-import com.google.common.collect.ClassToInstanceMap;
-import com.google.common.collect.MutableClassToInstanceMap;
 import io.swagger.v3.jaxrs2.ResolvedParameter;
-import io.swagger.v3.jaxrs2.ext.AbstractOpenAPIExtension;
 import io.swagger.v3.jaxrs2.ext.OpenAPIExtension;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.CookieParameter;
 import io.swagger.v3.oas.models.parameters.HeaderParameter;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.parameters.PathParameter;
 import io.swagger.v3.oas.models.parameters.QueryParameter;
 import org.apache.maven.plugin.logging.Log;
@@ -22,7 +22,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
-public class JaxrsParameterExtension extends AbstractOpenAPIExtension {
+public class JaxrsParameterExtension extends AbstractReaderOpenAPIExtension {
 
     JaxrsParameterExtension(Log log) {
         this.log = log;
@@ -34,52 +34,39 @@ public class JaxrsParameterExtension extends AbstractOpenAPIExtension {
         if (shouldIgnoreType(type, typesToSkip)) {
             return new ResolvedParameter();
         }
-        ClassToInstanceMap<Annotation> annotationInstances = toInstanceMap(annotations);
-        ResolvedParameter resolvedParameter = extractParametersFromAnnotation(type, annotationInstances);
-        if (resolvedParameter.parameters.size() > 0) {
+        Parameter parameter = extractParameterFromAnnotation(type, reader.classifyParameterAnnotations(annotations));
+        if (parameter != null) {
+            ResolvedParameter resolvedParameter = new ResolvedParameter();
+            resolvedParameter.parameters.add(parameter);
             return resolvedParameter;
         }
         return super.extractParameters(annotations, type, typesToSkip, components, classConsumes, methodConsumes, includeRequestBody, jsonViewAnnotation, chain);
     }
 
-    private ClassToInstanceMap<Annotation> toInstanceMap(List<? extends Annotation> annotations) {
-        ClassToInstanceMap<Annotation> annotationMap = MutableClassToInstanceMap.create();
-        for (Annotation annotation : annotations) {
-            if (annotation == null) {
-                continue;
-            }
-            annotationMap.put(annotation.annotationType(), annotation);
-        }
-        return annotationMap;
-    }
-
-    private ResolvedParameter extractParametersFromAnnotation(Type type, ClassToInstanceMap<Annotation> annotations) {
+    private Parameter extractParameterFromAnnotation(Type type, ParameterAnnotations annotations) {
         String defaultValue = null;
-        if (annotations.containsKey(DefaultValue.class)) {
-            DefaultValue defaultValueAnnotation = annotations.getInstance(DefaultValue.class);
+        DefaultValue defaultValueAnnotation = annotations.getAnnotation(DefaultValue.class);
+        if (defaultValueAnnotation != null) {
             defaultValue = defaultValueAnnotation.value();
         }
 
-        ResolvedParameter resolvedParameter = new ResolvedParameter();
-        if (annotations.containsKey(QueryParam.class)) {
-            QueryParam param = annotations.getInstance(QueryParam.class);
-            QueryParameter queryParameter = extractQueryParam(type, defaultValue, param);
-            resolvedParameter.parameters.add(queryParameter);
-        } else if (annotations.containsKey(PathParam.class)) {
-            PathParam param = annotations.getInstance(PathParam.class);
-            PathParameter pathParameter = extractPathParam(type, defaultValue, param);
-            resolvedParameter.parameters.add(pathParameter);
-        } else if (annotations.containsKey(HeaderParam.class)) {
-            HeaderParam param = annotations.getInstance(HeaderParam.class);
-            HeaderParameter headerParameter = extractHeaderParam(type, defaultValue, param);
-            resolvedParameter.parameters.add(headerParameter);
-        } else if (annotations.containsKey(CookieParam.class)) {
-            CookieParam param = annotations.getInstance(CookieParam.class);
-            CookieParameter cookieParameter = extractCookieParameter(type, defaultValue, param);
-            resolvedParameter.parameters.add(cookieParameter);
+        QueryParam queryParam = annotations.getAnnotation(QueryParam.class);
+        if (queryParam != null) {
+            return extractQueryParam(type, defaultValue, queryParam);
         }
-
-        return resolvedParameter;
+        PathParam pathParam = annotations.getAnnotation(PathParam.class);
+        if (pathParam != null) {
+            return extractPathParam(type, defaultValue, pathParam);
+        }
+        HeaderParam headerParam = annotations.getAnnotation(HeaderParam.class);
+        if (headerParam != null) {
+            return extractHeaderParam(type, defaultValue, headerParam);
+        }
+        CookieParam cookieParam = annotations.getAnnotation(CookieParam.class);
+        if (cookieParam != null) {
+            return extractCookieParameter(type, defaultValue, cookieParam);
+        }
+        return null;
     }
 
     private QueryParameter extractQueryParam(Type type, String defaultValue, QueryParam param) {
@@ -111,8 +98,6 @@ public class JaxrsParameterExtension extends AbstractOpenAPIExtension {
     }
 
     private Schema createPrimitiveSchema(Type type, String defaultValue) {
-        Schema primitiveSchema = TypeUtil.getPrimitiveSchema(type, log);
-        primitiveSchema.setDefault(defaultValue);
-        return primitiveSchema;
+        return TypeUtil.getPrimitiveSchema(type, defaultValue, log);
     }
 }
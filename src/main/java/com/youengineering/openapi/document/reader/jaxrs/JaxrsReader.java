@@ -2,12 +2,12 @@ package com.youengineering.openapi.document.reader.jaxrs;
 
 import com.youengineering.openapi.config.ContentConfig;
 import com.youengineering.openapi.reflection.AnnotatedClassService;
+import com.youengineering.openapi.reflection.AnnotatedElementMetadata;
 import com.youengineering.openapi.document.reader.AbstractReader;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.swagger.v3.jaxrs2.ext.OpenAPIExtension;
-import io.swagger.v3.jaxrs2.ext.OpenAPIExtensions;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.parameters.Parameter;
@@ -20,7 +20,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
 
-import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
 
 public class JaxrsReader extends AbstractReader {
 
@@ -42,13 +41,7 @@ public class JaxrsReader extends AbstractReader {
     }
 
     @Override
-    public void enrich(OpenAPI openAPI, Set<Class<?>> apiClasses) {
-        for (Class<?> apiClass : apiClasses) {
-            enrich(openAPI, apiClass);
-        }
-    }
-
-    private void enrich(OpenAPI openAPI, Class<?> apiClass) {
+    protected void enrich(OpenAPI openAPI, Class<?> apiClass) {
         enrich(openAPI, apiClass, "", null, false, new LinkedList<>());
     }
 
@@ -60,17 +53,18 @@ public class JaxrsReader extends AbstractReader {
             boolean readHidden,
             List<Parameter> parentParameters
     ) {
-        Path apiPath = findAnnotation(apiClass, Path.class);
+        Path apiPath = AnnotatedElementMetadata.of(apiClass).findAnnotation(Path.class);
 
         // Look for method-level annotated properties
         // Handle subresources by looking at return type
         List<Method> filteredMethods = getFilteredMethods(apiClass);
         for (Method method : filteredMethods) {
-            io.swagger.v3.oas.annotations.Operation operationAnnotation = findAnnotation(method, io.swagger.v3.oas.annotations.Operation.class);
+            AnnotatedElementMetadata methodMetadata = AnnotatedElementMetadata.of(method);
+            io.swagger.v3.oas.annotations.Operation operationAnnotation = methodMetadata.findAnnotation(io.swagger.v3.oas.annotations.Operation.class);
             if ((operationAnnotation != null) && operationAnnotation.hidden()) {
                 continue;
             }
-            Path methodPath = findAnnotation(method, Path.class);
+            Path methodPath = methodMetadata.findAnnotation(Path.class);
 
             String parentPathValue = String.valueOf(parentPath);
             // Is method default handler within a subresource
@@ -91,7 +85,7 @@ public class JaxrsReader extends AbstractReader {
             }
             String operationPath = getPath(apiPath, methodPath, parentPathValue);
             if (operationPath != null) {
-                String httpMethod = extractHttpMethod(method, OpenAPIExtensions.chain());
+                String httpMethod = extractHttpMethod(method, getOpenAPIExtensionChain());
                 if (httpMethod == null) {
                     httpMethod = parentHttpMethod;
                 }
@@ -119,7 +113,7 @@ public class JaxrsReader extends AbstractReader {
     }
 
     private boolean isSubResource(String httpMethod, Method method) {
-        return (httpMethod == null) && (method.getReturnType() != null) && (findAnnotation(method, Path.class) != null);
+        return (httpMethod == null) && (method.getReturnType() != null) && (AnnotatedElementMetadata.of(method).findAnnotation(Path.class) != null);
     }
 
     private String getPath(Path classLevelPath, Path methodLevelPath, String parentPath) {
@@ -162,19 +156,20 @@ public class JaxrsReader extends AbstractReader {
     }
 
     private String extractHttpMethod(Method method, Iterator<OpenAPIExtension> chain) {
-        if (findAnnotation(method, GET.class) != null) {
+        AnnotatedElementMetadata methodMetadata = AnnotatedElementMetadata.of(method);
+        if (methodMetadata.findAnnotation(GET.class) != null) {
             return "get";
-        } else if (findAnnotation(method, PUT.class) != null) {
+        } else if (methodMetadata.findAnnotation(PUT.class) != null) {
             return "put";
-        } else if (findAnnotation(method, POST.class) != null) {
+        } else if (methodMetadata.findAnnotation(POST.class) != null) {
             return "post";
-        } else if (findAnnotation(method, DELETE.class) != null) {
+        } else if (methodMetadata.findAnnotation(DELETE.class) != null) {
             return "delete";
-        } else if (findAnnotation(method, OPTIONS.class) != null) {
+        } else if (methodMetadata.findAnnotation(OPTIONS.class) != null) {
             return "options";
-        } else if (findAnnotation(method, HEAD.class) != null) {
+        } else if (methodMetadata.findAnnotation(HEAD.class) != null) {
             return "head";
-        } else if (findAnnotation(method, PATCH.class) != null) {
+        } else if (methodMetadata.findAnnotation(PATCH.class) != null) {
             return "patch";
         } else {
             // Check for custom HTTP Method annotations
@@ -201,7 +196,7 @@ public class JaxrsReader extends AbstractReader {
 
     @Override
     protected Collection<String> getConsumes(AnnotatedElement annotatedElement) {
-        Consumes consumes = findAnnotation(annotatedElement, Consumes.class);
+        Consumes consumes = AnnotatedElementMetadata.of(annotatedElement).findInheritedAnnotation(Consumes.class);
         List<String> list = new LinkedList<>();
         if (consumes != null) {
             Collections.addAll(list, consumes.value());
@@ -211,7 +206,7 @@ public class JaxrsReader extends AbstractReader {
 
     @Override
     protected Collection<String> getProduces(AnnotatedElement annotatedElement) {
-        Produces produces = findAnnotation(annotatedElement, Produces.class);
+        Produces produces = AnnotatedElementMetadata.of(annotatedElement).findInheritedAnnotation(Produces.class);
         List<String> list = new LinkedList<>();
         if (produces != null) {
             Collections.addAll(list, produces.value());
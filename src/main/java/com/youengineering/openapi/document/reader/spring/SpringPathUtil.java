@@ -1,6 +1,6 @@
 package com.youengineering.openapi.document.reader.spring;
 
-import org.springframework.core.annotation.AnnotationUtils;
+import com.youengineering.openapi.reflection.AnnotatedElementMetadata;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 class SpringPathUtil {
@@ -8,7 +8,7 @@ class SpringPathUtil {
 	private static final String[] DEFAULT_PATHS = new String[]{""};
 
 	static String[] getControllerPaths(Class<?> controllerClass) {
-		RequestMapping requestMapping = AnnotationUtils.findAnnotation(controllerClass, RequestMapping.class);
+		RequestMapping requestMapping = AnnotatedElementMetadata.of(controllerClass).findAnnotation(RequestMapping.class);
 		return ((requestMapping != null) ? getPaths(requestMapping) : DEFAULT_PATHS);
 	}
 
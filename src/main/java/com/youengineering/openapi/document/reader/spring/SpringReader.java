@@ -2,7 +2,10 @@ package com.youengineering.openapi.document.reader.spring;
 
 import com.youengineering.openapi.config.ContentConfig;
 import com.youengineering.openapi.reflection.AnnotatedClassService;
+import com.youengineering.openapi.reflection.AnnotatedElementMetadata;
 import com.youengineering.openapi.document.reader.AbstractReader;
+import com.youengineering.openapi.document.reader.ParameterAnnotationTable;
+import com.youengineering.openapi.document.reader.ParameterKind;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import io.swagger.v3.jaxrs2.ext.OpenAPIExtension;
@@ -20,8 +23,6 @@ import java.lang.reflect.Type;
 import java.util.*;
 
 import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
-import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
-import static org.springframework.core.annotation.AnnotationUtils.findAnnotation;
 
 public class SpringReader extends AbstractReader {
 
@@ -37,20 +38,45 @@ public class SpringReader extends AbstractReader {
         return Lists.newArrayList(new SpringSwaggerExtension(log));
     }
 
+    @Override
+    protected void registerParameterAnnotations(ParameterAnnotationTable parameterAnnotationTable) {
+        super.registerParameterAnnotations(parameterAnnotationTable);
+        parameterAnnotationTable.register(CookieValue.class, ParameterKind.cookie);
+        parameterAnnotationTable.register(ModelAttribute.class, ParameterKind.bean);
+        parameterAnnotationTable.register(PathVariable.class, ParameterKind.path);
+        parameterAnnotationTable.register(RequestBody.class, ParameterKind.body);
+        parameterAnnotationTable.register(RequestHeader.class, ParameterKind.header);
+        parameterAnnotationTable.register(RequestParam.class, ParameterKind.query);
+        parameterAnnotationTable.register(MatrixVariable.class, ParameterKind.undocumented);
+        parameterAnnotationTable.register(RequestAttribute.class, ParameterKind.undocumented);
+        parameterAnnotationTable.register(RequestPart.class, ParameterKind.undocumented);
+        parameterAnnotationTable.register(SessionAttribute.class, ParameterKind.undocumented);
+    }
+
     @Override
     public Set<Class<? extends Annotation>> getApiAnnotationClasses() {
         return Sets.newHashSet(RestController.class, ControllerAdvice.class);
     }
 
     @Override
-    public void enrich(OpenAPI openAPI, Set<Class<?>> classes) {
-        exceptionHandlerReader.processExceptionHandlers(classes);
-        for (Class<?> controllerClass : classes) {
-            enrichWithControllerClass(openAPI, controllerClass);
+    protected void initialize(Set<Class<?>> apiClasses) {
+        exceptionHandlerReader.processExceptionHandlers(apiClasses);
+    }
+
+    @Override
+    protected Collection<Class<?>> getSharedDependencies(Set<Class<?>> apiClasses) {
+        // The exception handlers of all controller advices apply to every controller
+        List<Class<?>> controllerAdviceClasses = new LinkedList<>();
+        for (Class<?> apiClass : apiClasses) {
+            if (AnnotatedElementMetadata.of(apiClass).findAnnotation(ControllerAdvice.class) != null) {
+                controllerAdviceClasses.add(apiClass);
+            }
         }
+        return controllerAdviceClasses;
     }
 
-    private void enrichWithControllerClass(OpenAPI openAPI, Class<?> controllerClass) {
+    @Override
+    protected void enrich(OpenAPI openAPI, Class<?> controllerClass) {
         if (controllerClass.isAnnotationPresent(Hidden.class)) {
             return;
         }
@@ -61,7 +87,7 @@ public class SpringReader extends AbstractReader {
                 if (method.isSynthetic()) {
                     continue;
                 }
-                RequestMapping methodRequestMapping = findMergedAnnotation(method, RequestMapping.class);
+                RequestMapping methodRequestMapping = AnnotatedElementMetadata.of(method).findMergedAnnotation(RequestMapping.class);
                 if (methodRequestMapping != null) {
                     String[] methodPaths = SpringPathUtil.getPaths(methodRequestMapping);
                     for (String methodPath : methodPaths) {
@@ -89,7 +115,7 @@ public class SpringReader extends AbstractReader {
         if (method.isAnnotationPresent(Hidden.class)) {
             return;
         }
-        io.swagger.v3.oas.annotations.Operation operationAnnotation = findMergedAnnotation(method, io.swagger.v3.oas.annotations.Operation.class);
+        io.swagger.v3.oas.annotations.Operation operationAnnotation = AnnotatedElementMetadata.of(method).findMergedAnnotation(io.swagger.v3.oas.annotations.Operation.class);
         if ((operationAnnotation != null) && operationAnnotation.hidden()) {
             return;
         }
@@ -117,7 +143,7 @@ public class SpringReader extends AbstractReader {
 
     @Override
     protected Collection<String> getConsumes(AnnotatedElement annotatedElement) {
-        RequestMapping requestMapping = findAnnotation(annotatedElement, RequestMapping.class);
+        RequestMapping requestMapping = AnnotatedElementMetadata.of(annotatedElement).findInheritedAnnotation(RequestMapping.class);
         List<String> list = new LinkedList<>();
         if (requestMapping != null) {
             Collections.addAll(list, requestMapping.consumes());
@@ -127,7 +153,7 @@ public class SpringReader extends AbstractReader {
 
     @Override
     protected Collection<String> getProduces(AnnotatedElement annotatedElement) {
-        RequestMapping requestMapping = findAnnotation(annotatedElement, RequestMapping.class);
+        RequestMapping requestMapping = AnnotatedElementMetadata.of(annotatedElement).findInheritedAnnotation(RequestMapping.class);
         List<String> list = new LinkedList<>();
         if (requestMapping != null) {
             Collections.addAll(list, requestMapping.produces());
@@ -139,7 +165,7 @@ public class SpringReader extends AbstractReader {
     protected Map<Integer, String> getResponseDescriptions(Method method) {
         Map<Integer, String> responseDescriptions = new HashMap<>();
 
-        ResponseStatus defaultResponseStatus = findMergedAnnotation(method, ResponseStatus.class);
+        ResponseStatus defaultResponseStatus = AnnotatedElementMetadata.of(method).findMergedAnnotation(ResponseStatus.class);
         if (defaultResponseStatus != null) {
             addResponseStatusDescription(responseDescriptions, defaultResponseStatus);
         }
@@ -1,16 +1,18 @@
 package com.youengineering.openapi.document.reader.spring;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import com.youengineering.openapi.document.reader.AbstractReaderOpenAPIExtension;
+import com.youengineering.openapi.document.reader.ParameterAnnotations;
+import com.youengineering.openapi.document.reader.ParameterKind;
 import com.youengineering.openapi.document.reader.TypeUtil;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import io.swagger.v3.core.util.ParameterProcessor;
 import io.swagger.v3.jaxrs2.ResolvedParameter;
-import io.swagger.v3.jaxrs2.ext.AbstractOpenAPIExtension;
 import io.swagger.v3.jaxrs2.ext.OpenAPIExtension;
 import io.swagger.v3.oas.models.Components;
-import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.*;
+import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.apache.maven.plugin.logging.Log;
@@ -24,13 +26,16 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
+public class SpringSwaggerExtension extends AbstractReaderOpenAPIExtension {
 
     private static final String DEFAULT_VALUE = "\n\t\t\n\t\t\n\ue000\ue001\ue002\n\t\t\t\t\n";
     private static final RequestParam DEFAULT_REQUEST_PARAM = (RequestParam) AnnotationBearer.class.getDeclaredMethods()[0].getParameterAnnotations()[0][0];
 
     private Log log;
+    // Kept per extension, and so per generation run, as the schemas depend on the run's model converters
+    private final Map<ModelAttributeKey, List<Parameter>> modelAttributeParameters = new ConcurrentHashMap<>();
 
     // Class specifically for holding default value annotations
     private static class AnnotationBearer {
@@ -53,15 +58,14 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
             return resolvedParameter;
         }
 
+        ParameterAnnotations parameterAnnotations = reader.classifyParameterAnnotations(annotations);
         if (annotations.isEmpty()) {
             // Method arguments are not required to have any annotations
             annotations = Lists.newArrayList((Annotation) null);
         }
 
-        Map<Class<?>, Annotation> annotationMap = toMap(annotations);
-
-        resolvedParameter.parameters.addAll(extractParametersFromModelAttributeAnnotation(type, annotationMap, jsonViewAnnotation));
-        resolvedParameter.parameters.addAll(extractParametersFromAnnotation(type, annotationMap));
+        resolvedParameter.parameters.addAll(extractParametersFromModelAttributeAnnotation(type, parameterAnnotations, jsonViewAnnotation));
+        resolvedParameter.parameters.addAll(extractParametersFromAnnotation(type, parameterAnnotations));
 
         if (!resolvedParameter.parameters.isEmpty()) {
             return resolvedParameter;
@@ -69,48 +73,24 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
         return super.extractParameters(annotations, type, typesToSkip, components, classConsumes, methodConsumes, includeRequestBody, jsonViewAnnotation, chain);
     }
 
-    private Map<Class<?>, Annotation> toMap(List<? extends Annotation> annotations) {
-        Map<Class<?>, Annotation> annotationMap = new HashMap<>();
-        for (Annotation annotation : annotations) {
-            if (annotation == null) {
-                continue;
-            }
-            annotationMap.put(annotation.annotationType(), annotation);
-        }
-
-        return annotationMap;
-    }
-
-    private boolean hasClassStartingWith(Set<Class<?>> list, String value) {
-        for (Class<?> aClass : list) {
-            if (aClass.getName().startsWith(value)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private List<Parameter> extractParametersFromAnnotation(Type type, Map<Class<?>, Annotation> annotations) {
+    private List<Parameter> extractParametersFromAnnotation(Type type, ParameterAnnotations annotations) {
         List<Parameter> parameters = new ArrayList<>();
 
-        if (isRequestParamType(type, annotations)) {
-            parameters.add(extractRequestParam(type, (RequestParam)annotations.get(RequestParam.class)));
+        RequestParam requestParam = annotations.getAnnotation(RequestParam.class);
+        if (requestParam != null || isUnboundSimpleType(type, annotations)) {
+            parameters.add(extractRequestParam(type, requestParam));
         }
-        if (annotations.containsKey(PathVariable.class)) {
-            PathVariable pathVariable = (PathVariable) annotations.get(PathVariable.class);
-            PathParameter pathParameter = extractPathVariable(type, pathVariable);
-            parameters.add(pathParameter);
+        PathVariable pathVariable = annotations.getAnnotation(PathVariable.class);
+        if (pathVariable != null) {
+            parameters.add(extractPathVariable(type, pathVariable));
         }
-        if (annotations.containsKey(RequestHeader.class)) {
-            RequestHeader requestHeader = (RequestHeader) annotations.get(RequestHeader.class);
-            HeaderParameter headerParameter = extractRequestHeader(type, requestHeader);
-            parameters.add(headerParameter);
+        RequestHeader requestHeader = annotations.getAnnotation(RequestHeader.class);
+        if (requestHeader != null) {
+            parameters.add(extractRequestHeader(type, requestHeader));
         }
-        if (annotations.containsKey(CookieValue.class)) {
-            CookieValue cookieValue = (CookieValue) annotations.get(CookieValue.class);
-            CookieParameter cookieParameter = extractCookieValue(type, cookieValue);
-            parameters.add(cookieParameter);
+        CookieValue cookieValue = annotations.getAnnotation(CookieValue.class);
+        if (cookieValue != null) {
+            parameters.add(extractCookieValue(type, cookieValue));
         }
 
         return parameters;
@@ -155,21 +135,43 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
     }
 
     private void setSchema(Parameter parameter, Type type, String defaultValue) {
-        Schema schema = TypeUtil.getPrimitiveSchema(type, log);
         if (!DEFAULT_VALUE.equals(defaultValue)) {
-            schema.setDefault(defaultValue);
+            parameter.setSchema(TypeUtil.getPrimitiveSchema(type, defaultValue, log));
             // Supplying a default value implicitly sets required() to false.
             parameter.setRequired(false);
+        } else {
+            parameter.setSchema(TypeUtil.getPrimitiveSchema(type, log));
         }
-        parameter.setSchema(schema);
     }
 
-    private List<Parameter> extractParametersFromModelAttributeAnnotation(Type type, Map<Class<?>, Annotation> annotations, JsonView jsonViewAnnotation) {
-        ModelAttribute modelAttribute = (ModelAttribute)annotations.get(ModelAttribute.class);
-        if ((modelAttribute == null || !hasClassStartingWith(annotations.keySet(), "org.springframework.web.bind.annotation"))&& BeanUtils.isSimpleProperty(TypeUtils.getRawType(type, null))) {
+    private List<Parameter> extractParametersFromModelAttributeAnnotation(Type type, ParameterAnnotations annotations, JsonView jsonViewAnnotation) {
+        if (!annotations.hasParameterKind(ParameterKind.bean) && BeanUtils.isSimpleProperty(TypeUtils.getRawType(type, null))) {
             return Collections.emptyList();
         }
 
+        List<Parameter> parameterPrototypes = getModelAttributeParameters(type, jsonViewAnnotation);
+        List<Parameter> parameters = new ArrayList<>(parameterPrototypes.size());
+        for (Parameter parameterPrototype : parameterPrototypes) {
+            parameters.add(TypeUtil.copyModel(parameterPrototype));
+        }
+        return parameters;
+    }
+
+    /**
+     * The parameters of a model attribute type are only read once, and
+     * copied for each use.
+     */
+    private List<Parameter> getModelAttributeParameters(Type type, JsonView jsonViewAnnotation) {
+        ModelAttributeKey modelAttributeKey = new ModelAttributeKey(type, jsonViewAnnotation);
+        List<Parameter> parameters = modelAttributeParameters.get(modelAttributeKey);
+        if (parameters == null) {
+            parameters = Collections.unmodifiableList(readModelAttributeParameters(type, jsonViewAnnotation));
+            modelAttributeParameters.put(modelAttributeKey, parameters);
+        }
+        return parameters;
+    }
+
+    private List<Parameter> readModelAttributeParameters(Type type, JsonView jsonViewAnnotation) {
         List<Parameter> parameters = new ArrayList<>();
         Class<?> clazz = TypeUtils.getRawType(type, type);
         for (PropertyDescriptor propertyDescriptor : BeanUtils.getPropertyDescriptors(clazz)) {
@@ -191,7 +193,7 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
                 }
 
                 Class parameterClass = propertyDescriptor.getPropertyType();
-                List<Parameter> propertySetterExtractedParameters = this.extractParametersFromAnnotation(parameterClass, toMap(Arrays.asList(parameterAnnotations[0])));
+                List<Parameter> propertySetterExtractedParameters = this.extractParametersFromAnnotation(parameterClass, reader.classifyParameterAnnotations(Arrays.asList(parameterAnnotations[0])));
 
                 for (Parameter parameter : propertySetterExtractedParameters) {
                     if (Strings.isNullOrEmpty(parameter.getName())) {
@@ -206,9 +208,12 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
         return parameters;
     }
 
-    private boolean isRequestParamType(Type type, Map<Class<?>, Annotation> annotations) {
-        RequestParam requestParam = (RequestParam) annotations.get(RequestParam.class);
-        return requestParam != null || (BeanUtils.isSimpleProperty(TypeUtils.getRawType(type, type)) && !hasClassStartingWith(annotations.keySet(), "org.springframework.web.bind.annotation"));
+    /**
+     * Simple types that no annotation binds to a part of the request are
+     * taken as request parameters, like Spring does.
+     */
+    private boolean isUnboundSimpleType(Type type, ParameterAnnotations annotations) {
+        return BeanUtils.isSimpleProperty(TypeUtils.getRawType(type, type)) && !annotations.isBound();
     }
 
     @Override
@@ -232,4 +237,25 @@ public class SpringSwaggerExtension extends AbstractOpenAPIExtension {
 
         return className.startsWith("org.springframework") && !"org.springframework.web.multipart.MultipartFile".equals(className);
     }
+
+    @AllArgsConstructor
+    private static class ModelAttributeKey {
+
+        private final Type type;
+        private final JsonView jsonViewAnnotation;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ModelAttributeKey)) {
+                return false;
+            }
+            ModelAttributeKey modelAttributeKey = (ModelAttributeKey) o;
+            return type.equals(modelAttributeKey.type) && Objects.equals(jsonViewAnnotation, modelAttributeKey.jsonViewAnnotation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, jsonViewAnnotation);
+        }
+    }
 }
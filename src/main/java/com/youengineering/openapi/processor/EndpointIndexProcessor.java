@@ -0,0 +1,177 @@
+package com.youengineering.openapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Records the endpoint types of a module at compile time, so the generate
+ * goal can load them without scanning the classpath. Like the classpath scan,
+ * it includes types whose annotations are meta-annotated with an endpoint
+ * annotation and subtypes of annotated types. It is not registered as a
+ * service, it has to be enabled explicitly with the annotationProcessors
+ * configuration of the maven-compiler-plugin.
+ */
+@SupportedAnnotationTypes("*")
+public class EndpointIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_RESOURCE = "META-INF/openapi-maven-plugin/index";
+
+    private static final Set<String> ENDPOINT_ANNOTATION_NAMES = new HashSet<>(Arrays.asList(
+            "javax.ws.rs.Path",
+            "org.springframework.web.bind.annotation.RestController",
+            "org.springframework.web.bind.annotation.ControllerAdvice"));
+
+    private final Set<String> processedTypeNames = new HashSet<>();
+    private final Map<String, Set<String>> endpointTypeNames = new TreeMap<>();
+    private final Map<String, Boolean> annotationMatches = new HashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        if (roundEnvironment.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element rootElement : roundEnvironment.getRootElements()) {
+                processElement(rootElement);
+            }
+        }
+        // Other processors still need to see all annotations
+        return false;
+    }
+
+    private void processElement(Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement typeElement = (TypeElement) element;
+        String typeName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        processedTypeNames.add(typeName);
+        if (typeElement.getKind() != ElementKind.ANNOTATION_TYPE) {
+            for (String annotationName : getEndpointAnnotationNames(typeElement, new HashSet<>())) {
+                endpointTypeNames.computeIfAbsent(annotationName, an -> new TreeSet<>()).add(typeName);
+            }
+        }
+        for (Element enclosedElement : typeElement.getEnclosedElements()) {
+            processElement(enclosedElement);
+        }
+    }
+
+    /**
+     * Returns the endpoint annotations of the given type, including those of
+     * its supertypes.
+     */
+    private Set<String> getEndpointAnnotationNames(TypeElement typeElement, Set<String> visitedTypeNames) {
+        Set<String> annotationNames = new HashSet<>();
+        if (!visitedTypeNames.add(typeElement.getQualifiedName().toString())) {
+            return annotationNames;
+        }
+        for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors()) {
+            TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            for (String endpointAnnotationName : ENDPOINT_ANNOTATION_NAMES) {
+                if (isAnnotatedWith(annotationElement, endpointAnnotationName, new HashSet<>())) {
+                    annotationNames.add(endpointAnnotationName);
+                }
+            }
+        }
+        List<TypeMirror> superTypes = new ArrayList<>(typeElement.getInterfaces());
+        superTypes.add(typeElement.getSuperclass());
+        for (TypeMirror superType : superTypes) {
+            if (superType.getKind() == TypeKind.DECLARED) {
+                annotationNames.addAll(getEndpointAnnotationNames((TypeElement) ((DeclaredType) superType).asElement(), visitedTypeNames));
+            }
+        }
+        return annotationNames;
+    }
+
+    private boolean isAnnotatedWith(TypeElement annotationElement, String targetAnnotationName, Set<String> visitedAnnotationNames) {
+        String annotationName = annotationElement.getQualifiedName().toString();
+        if (annotationName.equals(targetAnnotationName)) {
+            return true;
+        }
+        if (annotationName.startsWith("java.lang.annotation.") || !visitedAnnotationNames.add(annotationName)) {
+            return false;
+        }
+        String key = annotationName + ' ' + targetAnnotationName;
+        Boolean match = annotationMatches.get(key);
+        if (match == null) {
+            match = false;
+            for (AnnotationMirror annotationMirror : annotationElement.getAnnotationMirrors()) {
+                if (isAnnotatedWith((TypeElement) annotationMirror.getAnnotationType().asElement(), targetAnnotationName, visitedAnnotationNames)) {
+                    match = true;
+                    break;
+                }
+            }
+            annotationMatches.put(key, match);
+        }
+        return match;
+    }
+
+    private void writeIndex() {
+        // Incremental compilations only process the changed sources, so the
+        // entries of the other types that still exist are kept
+        for (Map.Entry<String, Set<String>> previousEntry : readPreviousIndex().entrySet()) {
+            for (String typeName : previousEntry.getValue()) {
+                if (!processedTypeNames.contains(typeName) && (processingEnv.getElementUtils().getTypeElement(typeName.replace('$', '.')) != null)) {
+                    endpointTypeNames.computeIfAbsent(previousEntry.getKey(), an -> new TreeSet<>()).add(typeName);
+                }
+            }
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8))) {
+                for (Map.Entry<String, Set<String>> endpointTypeNamesEntry : endpointTypeNames.entrySet()) {
+                    for (String typeName : endpointTypeNamesEntry.getValue()) {
+                        writer.write(endpointTypeNamesEntry.getKey() + ' ' + typeName + '\n');
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX_RESOURCE + ": " + ex.getMessage());
+        }
+    }
+
+    private Map<String, Set<String>> readPreviousIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (InputStream input = index.openInputStream()) {
+                return readIndex(input);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // There is no previous index
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Reads an index as written by this processor, mapping the endpoint
+     * annotation names to the binary names of the types they apply to.
+     */
+    public static Map<String, Set<String>> readIndex(InputStream input) throws IOException {
+        Map<String, Set<String>> index = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int separatorIndex = line.indexOf(' ');
+            if (separatorIndex > 0) {
+                index.computeIfAbsent(line.substring(0, separatorIndex), an -> new TreeSet<>()).add(line.substring(separatorIndex + 1).trim());
+            }
+        }
+        return index;
+    }
+}
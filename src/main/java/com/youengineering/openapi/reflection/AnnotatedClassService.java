@@ -1,53 +1,142 @@
 package com.youengineering.openapi.reflection;
 
+import com.youengineering.openapi.config.ScanScope;
+import com.youengineering.openapi.processor.EndpointIndexProcessor;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
-import org.reflections.Reflections;
-import org.reflections.scanners.ResourcesScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
-import org.reflections.util.ConfigurationBuilder;
+import org.codehaus.plexus.util.StringUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.stream.Stream;
 
-public class AnnotatedClassService {
+/**
+ * Owns the class loader of a generation run: it is installed as context
+ * class loader by {@link #initialize} and uninstalled and closed again by
+ * {@link #close}, so repeated executions in the same JVM do not retain the
+ * classes of previous executions.
+ */
+public class AnnotatedClassService implements AutoCloseable {
 
-    private String sourcePackage;
-    private Reflections reflections;
+    public AnnotatedClassService(Log log) {
+        this.log = log;
+        this.initialLoadedClassCount = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        this.initialMetaspaceUsed = getMetaspaceUsed();
+    }
+    private Log log;
+    private final long initialLoadedClassCount;
+    private final long initialMetaspaceUsed;
+    private PackageFilter packageFilter;
+    private ClassLoader previousContextClassLoader;
+    private SharedClassLoaders.Lease dependenciesClassLoaderLease;
+    private boolean keepSharedClassLoaders;
+    private URLClassLoader classLoader;
+    private URL[] classpathUrls;
+    private Map<String, Set<String>> endpointIndex;
+    private AnnotationIndex annotationIndex;
+    private MetaAnnotationResolver metaAnnotationResolver;
 
-    public void initialize(MavenProject mavenProject, String sourcePackage) throws MojoExecutionException {
+    public void initialize(MavenProject mavenProject, List<String> sourcePackages, List<String> excludePackages, ScanScope scanScope, List<String> scanDependencies, String scanCacheDirectory, int scanThreads) throws MojoExecutionException {
         initializeClassLoader(mavenProject);
-        createReflections(sourcePackage);
+        packageFilter = new PackageFilter(sourcePackages, excludePackages);
+        if (scanScope == ScanScope.outputDirectory) {
+            endpointIndex = readEndpointIndex(Paths.get(mavenProject.getBuild().getOutputDirectory(), EndpointIndexProcessor.INDEX_RESOURCE));
+            if (endpointIndex != null) {
+                return;
+            }
+        }
+        Path scanIndexFile = Paths.get(mavenProject.getBuild().getDirectory(), "openapi-maven-plugin", "scan-index.bin");
+        JarScanCache jarScanCache = (StringUtils.isNotEmpty(scanCacheDirectory) ? new JarScanCache(Paths.get(scanCacheDirectory), log) : null);
+        ClasspathScanner classpathScanner = new ClasspathScanner(packageFilter, jarScanCache, ((scanThreads > 0) ? scanThreads : Runtime.getRuntime().availableProcessors()));
+        Set<URL> scanRoots = getScanRoots(mavenProject, scanScope, scanDependencies, classpathScanner);
+        createAnnotationIndex(classpathScanner, scanRoots, scanIndexFile);
     }
 
+    /**
+     * Creates a thin module class loader for the classpath directories (the
+     * module's own classes and those of reactor siblings) on top of a shared
+     * loader for the immutable dependency jars, which is reused by all
+     * executions with the same jars. As the jars are searched first then, a
+     * directory class that a jar contains as well (e.g. a patched class or a
+     * test-jar of the module) would be shadowed. In that case a single loader
+     * searching the classpath in order is used instead.
+     */
     private void initializeClassLoader(MavenProject mavenProject) throws MojoExecutionException {
         ClassLoader parent = Thread.currentThread().getContextClassLoader();
         try {
-            Set<String> dependencies = getDependentClasspathElements(mavenProject);
-            URL[] urls = new URL[dependencies.size()];
-            int index = 0;
-            for (String dependency : dependencies) {
-                urls[index++] = Paths.get(dependency).toUri().toURL();
+            List<Path> jars = new ArrayList<>();
+            List<Path> directories = new ArrayList<>();
+            List<URL> directoryUrls = new ArrayList<>();
+            List<URL> urls = new ArrayList<>();
+            for (String dependency : getDependentClasspathElements(mavenProject)) {
+                Path dependencyPath = Paths.get(dependency);
+                URL dependencyUrl = dependencyPath.toUri().toURL();
+                if (Files.isRegularFile(dependencyPath)) {
+                    jars.add(dependencyPath);
+                } else {
+                    directories.add(dependencyPath);
+                    directoryUrls.add(dependencyUrl);
+                }
+                urls.add(dependencyUrl);
+            }
+            classpathUrls = urls.toArray(new URL[0]);
+            dependenciesClassLoaderLease = SharedClassLoaders.acquire(jars, parent);
+            String shadowedClass = findClassInJars(directories, dependenciesClassLoaderLease.getClassLoader());
+            if (shadowedClass == null) {
+                classLoader = new URLClassLoader(directoryUrls.toArray(new URL[0]), dependenciesClassLoaderLease.getClassLoader());
+            } else {
+                log.debug(String.format("Not sharing the dependency class loader, as %s is also in a dependency jar", shadowedClass));
+                classLoader = new URLClassLoader(classpathUrls, parent);
             }
-            URLClassLoader urlClassLoader = new URLClassLoader(urls, parent);
-            Thread.currentThread().setContextClassLoader(urlClassLoader);
+            previousContextClassLoader = parent;
+            Thread.currentThread().setContextClassLoader(classLoader);
         } catch (MalformedURLException ex) {
             throw new MojoExecutionException("Unable to create class loader with compiled classes", ex);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to create class loader for dependencies", ex);
         } catch (DependencyResolutionRequiredException ex) {
             throw new MojoExecutionException("Dependency resolution (runtime + compile) is required");
         }
     }
 
-    private Set<String> getDependentClasspathElements(MavenProject mavenProject) throws DependencyResolutionRequiredException {
+    /**
+     * Returns a class file of the directories that one of the jars contains
+     * as well, or null if there is none.
+     */
+    private static String findClassInJars(List<Path> directories, URLClassLoader jarsClassLoader) throws IOException {
+        for (Path directory : directories) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                Iterator<Path> fileIterator = files.iterator();
+                while (fileIterator.hasNext()) {
+                    String name = directory.relativize(fileIterator.next()).toString().replace(File.separatorChar, '/');
+                    // Modular jars and directories all have a module-info.class, it does not matter for the lookup
+                    if (name.endsWith(".class") && !"module-info.class".equals(name) && (jarsClassLoader.findResource(name) != null)) {
+                        return name;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public static Set<String> getDependentClasspathElements(MavenProject mavenProject) throws DependencyResolutionRequiredException {
         Set<String> dependencies = new LinkedHashSet<>();
         dependencies.add(mavenProject.getBuild().getOutputDirectory());
         List<String> compileClasspathElements = mavenProject.getCompileClasspathElements();
@@ -61,22 +150,183 @@ public class AnnotatedClassService {
         return dependencies;
     }
 
-    private void createReflections(String sourcePackage) {
-        this.sourcePackage = sourcePackage;
-        ConfigurationBuilder config = ConfigurationBuilder
-                .build(sourcePackage)
-                .setScanners(new ResourcesScanner(), new TypeAnnotationsScanner(), new SubTypesScanner());
-        reflections = new Reflections(config);
+    /**
+     * Dependencies outside of the scan scope are still part of the class
+     * loader, they are just not searched for annotated classes.
+     */
+    private Set<URL> getScanRoots(MavenProject mavenProject, ScanScope scanScope, List<String> scanDependencies, ClasspathScanner classpathScanner) throws MojoExecutionException {
+        try {
+            Set<URL> scanRoots = new LinkedHashSet<>();
+            switch (scanScope) {
+                case outputDirectory:
+                    scanRoots.add(Paths.get(mavenProject.getBuild().getOutputDirectory()).toUri().toURL());
+                    return scanRoots;
+                case dependencies:
+                    scanRoots.add(Paths.get(mavenProject.getBuild().getOutputDirectory()).toUri().toURL());
+                    scanRoots.addAll(getDependencyScanRoots(mavenProject, scanDependencies));
+                    return scanRoots;
+                case classpath:
+                    return classpathScanner.getRoots(classLoader, classpathUrls);
+            }
+            throw new MojoExecutionException("Invalid scan scope: " + scanScope);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to determine the classpath elements to scan", ex);
+        }
+    }
+
+    private Set<URL> getDependencyScanRoots(MavenProject mavenProject, List<String> scanDependencies) throws MalformedURLException {
+        List<ArtifactPattern> artifactPatterns = new LinkedList<>();
+        if (scanDependencies != null) {
+            for (String scanDependency : scanDependencies) {
+                artifactPatterns.add(new ArtifactPattern(scanDependency));
+            }
+        }
+        Set<URL> scanRoots = new LinkedHashSet<>();
+        for (Artifact artifact : mavenProject.getArtifacts()) {
+            if ((artifact.getFile() != null) && artifactPatterns.stream().anyMatch(artifactPattern -> artifactPattern.matches(artifact))) {
+                scanRoots.add(artifact.getFile().toURI().toURL());
+            }
+        }
+        return scanRoots;
+    }
+
+    /**
+     * Returns the index written by the {@link EndpointIndexProcessor} at
+     * compile time, or null if the module was compiled without it.
+     */
+    private Map<String, Set<String>> readEndpointIndex(Path endpointIndexFile) throws MojoExecutionException {
+        if (!Files.isRegularFile(endpointIndexFile)) {
+            return null;
+        }
+        try (InputStream input = Files.newInputStream(endpointIndexFile)) {
+            Map<String, Set<String>> endpointIndex = EndpointIndexProcessor.readIndex(input);
+            log.debug(String.format("Using endpoint index %s instead of scanning the classpath", endpointIndexFile));
+            return endpointIndex;
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to read endpoint index " + endpointIndexFile, ex);
+        }
+    }
+
+    private void createAnnotationIndex(ClasspathScanner classpathScanner, Set<URL> scanRoots, Path scanIndexFile) throws MojoExecutionException {
+        long startTime = System.currentTimeMillis();
+        ScanIndexStore scanIndexStore = new ScanIndexStore(scanIndexFile);
+        Map<String, ScannedElement> previousElements = readScanIndex(scanIndexStore);
+        Map<String, ScannedElement> elements;
+        try {
+            elements = classpathScanner.scan(scanRoots, previousElements);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to scan classpath for annotated classes", ex);
+        }
+        if (classpathScanner.isModified()) {
+            writeScanIndex(scanIndexStore, elements);
+        }
+        annotationIndex = AnnotationIndex.of(elements.values());
+        metaAnnotationResolver = new MetaAnnotationResolver(annotationIndex, classLoader);
+        log.debug(String.format("Indexed %d classes (%d read, %d reused, %d from jar cache) in %d ms", annotationIndex.size(), classpathScanner.getReadClassFiles(), classpathScanner.getReusedClassFiles(), classpathScanner.getSharedClassFiles(), System.currentTimeMillis() - startTime));
+    }
+
+    private Map<String, ScannedElement> readScanIndex(ScanIndexStore scanIndexStore) {
+        try {
+            return scanIndexStore.read(packageFilter.toString());
+        } catch (IOException ex) {
+            log.debug("Ignoring unreadable scan index: " + ex.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private void writeScanIndex(ScanIndexStore scanIndexStore, Map<String, ScannedElement> elements) {
+        try {
+            scanIndexStore.write(packageFilter.toString(), elements);
+        } catch (IOException ex) {
+            log.warn("Unable to write scan index: " + ex.getMessage());
+        }
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Keeps the dependency class loaders for later executions once this one
+     * is closed, e.g. while other projects of the reactor still have to be
+     * built. Otherwise all unused ones are closed.
+     */
+    public void setKeepSharedClassLoaders(boolean keepSharedClassLoaders) {
+        this.keepSharedClassLoaders = keepSharedClassLoaders;
     }
 
     public Set<Class<?>> getAnnotatedClasses(Class<? extends Annotation> annotationClass) {
-        return reflections.getTypesAnnotatedWith(annotationClass)
-                .stream()
-                .filter(this::filterClassByResourcePackages)
-                .collect(Collectors.toSet());
+        Set<Class<?>> annotatedClasses = new HashSet<>();
+        Set<String> classNames = ((endpointIndex != null)
+                ? endpointIndex.getOrDefault(annotationClass.getName(), Collections.emptySet())
+                : annotationIndex.getTypesAnnotatedWith(annotationClass.getName(), metaAnnotationResolver));
+        for (String className : classNames) {
+            // Only the confirmed matches are loaded, without running their static initializers
+            Class<?> annotatedClass = loadClass(className);
+            if ((annotatedClass != null) && filterClassByResourcePackages(annotatedClass)) {
+                annotatedClasses.add(annotatedClass);
+            }
+        }
+        return annotatedClasses;
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            log.warn(String.format("Could not load annotated class %s: %s", className, ex));
+            return null;
+        }
     }
 
     private boolean filterClassByResourcePackages(Class<?> classWithAnnotation) {
-        return ((sourcePackage == null) || classWithAnnotation.getPackage().getName().startsWith(sourcePackage));
+        String className = classWithAnnotation.getName();
+        int lastSeparatorIndex = className.lastIndexOf('.');
+        return packageFilter.includesPackage((lastSeparatorIndex > 0) ? className.substring(0, lastSeparatorIndex) : "");
+    }
+
+    @Override
+    public void close() {
+        if (previousContextClassLoader != null) {
+            Thread.currentThread().setContextClassLoader(previousContextClassLoader);
+            previousContextClassLoader = null;
+        }
+        try {
+            if (classLoader != null) {
+                classLoader.close();
+            }
+            if (dependenciesClassLoaderLease != null) {
+                dependenciesClassLoaderLease.release(keepSharedClassLoaders);
+            }
+        } catch (IOException ex) {
+            log.warn("Unable to close class loader: " + ex.getMessage());
+        }
+        classLoader = null;
+        dependenciesClassLoaderLease = null;
+        endpointIndex = null;
+        annotationIndex = null;
+        metaAnnotationResolver = null;
+
+        // Both values are JVM-wide, so in parallel builds they include the classes loaded by other executions
+        long loadedClassCount = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - initialLoadedClassCount;
+        long metaspaceUsed = getMetaspaceUsed();
+        int unusedSharedClassLoaders = SharedClassLoaders.getUnusedLoaderCount();
+        if (unusedSharedClassLoaders > 0) {
+            log.info(String.format("Keeping %d shared dependency class loaders for the remaining projects", unusedSharedClassLoaders));
+        }
+        if ((metaspaceUsed >= 0) && (initialMetaspaceUsed >= 0)) {
+            log.info(String.format("Loaded %d classes, metaspace grew by %d KB", loadedClassCount, (metaspaceUsed - initialMetaspaceUsed) / 1024));
+        } else {
+            log.info(String.format("Loaded %d classes", loadedClassCount));
+        }
+    }
+
+    private static long getMetaspaceUsed() {
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(memoryPool.getName())) {
+                return memoryPool.getUsage().getUsed();
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,101 @@
+package com.youengineering.openapi.reflection;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the annotations found on a class or method, so that each one is
+ * only searched for and synthesized once. The lookups have the same
+ * semantics as the Spring methods they are named after. The metadata is
+ * attached to the declaring class, so it does not keep classes of the
+ * project from being unloaded.
+ */
+public class AnnotatedElementMetadata {
+
+    private static final ClassValue<ClassMetadata> CLASS_METADATA = new ClassValue<ClassMetadata>() {
+
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final AnnotatedElement element;
+    private final Map<Class<? extends Annotation>, Optional<Annotation>> mergedAnnotations = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, Optional<Annotation>> hierarchyAnnotations = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, Optional<Annotation>> inheritedAnnotations = new ConcurrentHashMap<>();
+
+    private AnnotatedElementMetadata(AnnotatedElement element) {
+        this.element = element;
+    }
+
+    public static AnnotatedElementMetadata of(AnnotatedElement element) {
+        if (element instanceof Class) {
+            return CLASS_METADATA.get((Class<?>) element).classMetadata;
+        } else if (element instanceof Method) {
+            Method method = (Method) element;
+            return CLASS_METADATA.get(method.getDeclaringClass()).methodMetadata.computeIfAbsent(method, AnnotatedElementMetadata::new);
+        }
+        return new AnnotatedElementMetadata(element);
+    }
+
+    /**
+     * See {@link AnnotatedElementUtils#findMergedAnnotation(AnnotatedElement, Class)}.
+     */
+    public <A extends Annotation> A findMergedAnnotation(Class<A> annotationType) {
+        return get(mergedAnnotations, annotationType, () -> AnnotatedElementUtils.findMergedAnnotation(element, annotationType));
+    }
+
+    /**
+     * See {@link AnnotationUtils#findAnnotation(Class, Class)} and
+     * {@link AnnotationUtils#findAnnotation(Method, Class)}, which search the
+     * whole type hierarchy.
+     */
+    public <A extends Annotation> A findAnnotation(Class<A> annotationType) {
+        return get(hierarchyAnnotations, annotationType, () -> {
+            if (element instanceof Class) {
+                return AnnotationUtils.findAnnotation((Class<?>) element, annotationType);
+            } else if (element instanceof Method) {
+                return AnnotationUtils.findAnnotation((Method) element, annotationType);
+            }
+            return AnnotationUtils.findAnnotation(element, annotationType);
+        });
+    }
+
+    /**
+     * See {@link AnnotationUtils#findAnnotation(AnnotatedElement, Class)},
+     * which only considers annotations present on the element itself,
+     * including inherited ones of classes.
+     */
+    public <A extends Annotation> A findInheritedAnnotation(Class<A> annotationType) {
+        return get(inheritedAnnotations, annotationType, () -> AnnotationUtils.findAnnotation(element, annotationType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <A extends Annotation> A get(Map<Class<? extends Annotation>, Optional<Annotation>> annotations, Class<A> annotationType, Supplier<A> lookup) {
+        Optional<Annotation> annotation = annotations.get(annotationType);
+        if (annotation == null) {
+            annotation = Optional.ofNullable(lookup.get());
+            annotations.put(annotationType, annotation);
+        }
+        return (A) annotation.orElse(null);
+    }
+
+    private static class ClassMetadata {
+
+        private final AnnotatedElementMetadata classMetadata;
+        private final Map<Method, AnnotatedElementMetadata> methodMetadata = new ConcurrentHashMap<>();
+
+        private ClassMetadata(Class<?> type) {
+            classMetadata = new AnnotatedElementMetadata(type);
+        }
+    }
+}
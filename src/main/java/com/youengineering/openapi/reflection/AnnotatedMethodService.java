@@ -6,32 +6,80 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Remembers the merged parameter annotations of each method. Like
+ * {@link AnnotatedElementMetadata}, they are attached to the declaring class
+ * instead of a generation run: the annotations of a loaded class never
+ * change, and a run with other classes, e.g. after a recompilation, loads
+ * them with a new class loader. The entries go away with their class, so
+ * they do not keep classes of the project from being unloaded.
+ */
 public class AnnotatedMethodService {
 
-    public static Annotation[][] findAllParamAnnotations(Method method) {
-        Annotation[][] paramAnnotation = method.getParameterAnnotations();
-        Method overriddenMethod = ReflectionUtils.getOverriddenMethod(method);
-        while(overriddenMethod != null) {
-            paramAnnotation = merge(overriddenMethod.getParameterAnnotations(), paramAnnotation);
-            overriddenMethod = ReflectionUtils.getOverriddenMethod(overriddenMethod);
+    private static final ClassValue<Map<Method, List<List<Annotation>>>> PARAM_ANNOTATIONS = new ClassValue<Map<Method, List<List<Annotation>>>>() {
+
+        @Override
+        protected Map<Method, List<List<Annotation>>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
         }
-        return paramAnnotation;
+    };
+
+    /**
+     * Returns the annotations of each parameter, including those of the
+     * overridden methods, which come first. The lists are shared and can't
+     * be modified.
+     */
+    public static List<List<Annotation>> findAllParamAnnotations(Method method) {
+        Map<Method, List<List<Annotation>>> paramAnnotations = PARAM_ANNOTATIONS.get(method.getDeclaringClass());
+        List<List<Annotation>> methodParamAnnotations = paramAnnotations.get(method);
+        if (methodParamAnnotations == null) {
+            methodParamAnnotations = toUnmodifiableLists(mergeParamAnnotations(method));
+            paramAnnotations.put(method, methodParamAnnotations);
+        }
+        return methodParamAnnotations;
     }
 
-    private static Annotation[][] merge(Annotation[][] overriddenMethodParamAnnotation, Annotation[][] currentParamAnnotations) {
-        Annotation[][] mergedAnnotations = new Annotation[overriddenMethodParamAnnotation.length][];
-        for (int i = 0; i < overriddenMethodParamAnnotation.length; i++) {
-            mergedAnnotations[i] = merge(overriddenMethodParamAnnotation[i], currentParamAnnotations[i]);
+    private static List<List<Annotation>> toUnmodifiableLists(Annotation[][] paramAnnotations) {
+        List<List<Annotation>> paramAnnotationLists = new ArrayList<>(paramAnnotations.length);
+        for (Annotation[] annotations : paramAnnotations) {
+            paramAnnotationLists.add(Collections.unmodifiableList(Arrays.asList(annotations)));
         }
-        return mergedAnnotations;
+        return Collections.unmodifiableList(paramAnnotationLists);
     }
 
-    private static Annotation[] merge(Annotation[] annotations1, Annotation[] annotations2) {
-        List<Annotation> mergedAnnotations = new ArrayList<>();
-        mergedAnnotations.addAll(Arrays.asList(annotations1));
-        mergedAnnotations.addAll(Arrays.asList(annotations2));
-        return mergedAnnotations.toArray(new Annotation[0]);
+    private static Annotation[][] mergeParamAnnotations(Method method) {
+        List<Annotation[][]> hierarchyParamAnnotations = new ArrayList<>();
+        hierarchyParamAnnotations.add(method.getParameterAnnotations());
+        Method overriddenMethod = ReflectionUtils.getOverriddenMethod(method);
+        while (overriddenMethod != null) {
+            hierarchyParamAnnotations.add(overriddenMethod.getParameterAnnotations());
+            overriddenMethod = ReflectionUtils.getOverriddenMethod(overriddenMethod);
+        }
+        if (hierarchyParamAnnotations.size() == 1) {
+            return hierarchyParamAnnotations.get(0);
+        }
+
+        int parametersCount = method.getParameterCount();
+        Annotation[][] mergedAnnotations = new Annotation[parametersCount][];
+        for (int i = 0; i < parametersCount; i++) {
+            int annotationsCount = 0;
+            for (Annotation[][] paramAnnotations : hierarchyParamAnnotations) {
+                annotationsCount += paramAnnotations[i].length;
+            }
+            Annotation[] annotations = new Annotation[annotationsCount];
+            int position = 0;
+            for (int j = hierarchyParamAnnotations.size() - 1; j >= 0; j--) {
+                Annotation[] paramAnnotations = hierarchyParamAnnotations.get(j)[i];
+                System.arraycopy(paramAnnotations, 0, annotations, position, paramAnnotations.length);
+                position += paramAnnotations.length;
+            }
+            mergedAnnotations[i] = annotations;
+        }
+        return mergedAnnotations;
     }
 }
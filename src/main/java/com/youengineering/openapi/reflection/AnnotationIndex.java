@@ -0,0 +1,77 @@
+package com.youengineering.openapi.reflection;
+
+import java.util.*;
+
+class AnnotationIndex {
+
+    private final Map<String, ClassFileInfo> classes = new HashMap<>();
+    private final Map<String, Set<String>> annotatedTypes = new HashMap<>();
+    private final Map<String, Set<String>> subTypes = new HashMap<>();
+
+    static AnnotationIndex of(Collection<ScannedElement> scannedElements) {
+        AnnotationIndex annotationIndex = new AnnotationIndex();
+        for (ScannedElement scannedElement : scannedElements) {
+            for (ScannedClassFile scannedClassFile : scannedElement.getClassFiles().values()) {
+                if (scannedClassFile.getClassFileInfo() != null) {
+                    annotationIndex.add(scannedClassFile.getClassFileInfo());
+                }
+            }
+        }
+        return annotationIndex;
+    }
+
+    private void add(ClassFileInfo classFileInfo) {
+        String name = classFileInfo.getName();
+        // Like the class loader, the first classpath element containing a class wins
+        if (classes.putIfAbsent(name, classFileInfo) != null) {
+            return;
+        }
+        for (String annotationName : classFileInfo.getAnnotationNames()) {
+            annotatedTypes.computeIfAbsent(annotationName, an -> new HashSet<>()).add(name);
+        }
+        if (classFileInfo.getSuperName() != null) {
+            subTypes.computeIfAbsent(classFileInfo.getSuperName(), sn -> new HashSet<>()).add(name);
+        }
+        for (String interfaceName : classFileInfo.getInterfaceNames()) {
+            subTypes.computeIfAbsent(interfaceName, in -> new HashSet<>()).add(name);
+        }
+    }
+
+    ClassFileInfo get(String name) {
+        return classes.get(name);
+    }
+
+    int size() {
+        return classes.size();
+    }
+
+    /**
+     * Returns the names of all non-annotation types that are annotated with the
+     * given annotation, either directly or via meta-annotations, including all
+     * of their indexed subtypes.
+     */
+    Set<String> getTypesAnnotatedWith(String annotationName, MetaAnnotationResolver metaAnnotationResolver) {
+        Set<String> typeNames = new TreeSet<>();
+        for (Map.Entry<String, Set<String>> annotatedTypesEntry : annotatedTypes.entrySet()) {
+            if (metaAnnotationResolver.isAnnotatedWith(annotatedTypesEntry.getKey(), annotationName)) {
+                for (String typeName : annotatedTypesEntry.getValue()) {
+                    if (!classes.get(typeName).isAnnotation()) {
+                        typeNames.add(typeName);
+                    }
+                }
+            }
+        }
+        Deque<String> pendingTypeNames = new ArrayDeque<>(typeNames);
+        while (!pendingTypeNames.isEmpty()) {
+            Set<String> subTypeNames = subTypes.get(pendingTypeNames.pop());
+            if (subTypeNames != null) {
+                for (String subTypeName : subTypeNames) {
+                    if (typeNames.add(subTypeName)) {
+                        pendingTypeNames.push(subTypeName);
+                    }
+                }
+            }
+        }
+        return typeNames;
+    }
+}
@@ -0,0 +1,37 @@
+package com.youengineering.openapi.reflection;
+
+import org.apache.maven.artifact.Artifact;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matches artifacts against a {@code groupId:artifactId} pattern, where both
+ * parts may contain {@code *} wildcards and a missing artifactId matches all
+ * artifacts of the group.
+ */
+class ArtifactPattern {
+
+    private final Pattern groupIdPattern;
+    private final Pattern artifactIdPattern;
+
+    ArtifactPattern(String pattern) {
+        String[] parts = pattern.trim().split(":", 2);
+        groupIdPattern = compileGlob(parts[0]);
+        artifactIdPattern = compileGlob((parts.length > 1) ? parts[1] : "*");
+    }
+
+    boolean matches(Artifact artifact) {
+        return groupIdPattern.matcher(artifact.getGroupId()).matches() && artifactIdPattern.matcher(artifact.getArtifactId()).matches();
+    }
+
+    private static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (String literal : glob.split("\\*", -1)) {
+            if (regex.length() > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(literal));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
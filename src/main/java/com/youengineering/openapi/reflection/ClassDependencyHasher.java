@@ -0,0 +1,125 @@
+package com.youengineering.openapi.reflection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashes everything reflection can observe of a set of classes: their class
+ * files and, transitively, those of all types in their hierarchies, member
+ * signatures and annotations. Classes from jars are represented by the
+ * identity of their jar instead of being followed, and JDK classes are
+ * ignored. Class files are only read once per hasher.
+ */
+public class ClassDependencyHasher {
+
+    private static final ClassDependency NO_DEPENDENCY = new ClassDependency(null, Collections.emptySet());
+
+    private final ClassLoader classLoader;
+    private final Map<String, ClassDependency> classDependencies = new ConcurrentHashMap<>();
+    private final Map<String, String> jarKeys = new ConcurrentHashMap<>();
+
+    public ClassDependencyHasher(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public String hash(Collection<Class<?>> classes) throws IOException {
+        Set<String> visitedTypeNames = new HashSet<>();
+        Set<String> contentKeys = new TreeSet<>();
+        Deque<String> pendingTypeNames = new ArrayDeque<>();
+        classes.forEach(cls -> pendingTypeNames.push(cls.getName()));
+        while (!pendingTypeNames.isEmpty()) {
+            String typeName = pendingTypeNames.pop();
+            if (!visitedTypeNames.add(typeName)) {
+                continue;
+            }
+            ClassDependency classDependency = getClassDependency(typeName);
+            if (classDependency.contentKey != null) {
+                contentKeys.add(classDependency.contentKey);
+                pendingTypeNames.addAll(classDependency.referencedTypeNames);
+            }
+        }
+        MessageDigest messageDigest = Fingerprint.sha256();
+        for (String contentKey : contentKeys) {
+            messageDigest.update((contentKey + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return Fingerprint.toHex(messageDigest.digest());
+    }
+
+    private ClassDependency getClassDependency(String typeName) throws IOException {
+        ClassDependency classDependency = classDependencies.get(typeName);
+        if (classDependency == null) {
+            classDependency = readClassDependency(typeName);
+            classDependencies.put(typeName, classDependency);
+        }
+        return classDependency;
+    }
+
+    private ClassDependency readClassDependency(String typeName) throws IOException {
+        if (typeName.startsWith("java.")) {
+            return NO_DEPENDENCY;
+        }
+        URL classFileUrl = classLoader.getResource(typeName.replace('.', '/') + ".class");
+        if (classFileUrl == null) {
+            return NO_DEPENDENCY;
+        }
+        switch (classFileUrl.getProtocol()) {
+            case "file":
+                byte[] bytes;
+                try (InputStream inputStream = classFileUrl.openStream()) {
+                    bytes = ClasspathScanner.readAllBytes(inputStream);
+                }
+                String contentKey = typeName + '=' + Fingerprint.toHex(Fingerprint.sha256().digest(bytes));
+                try {
+                    return new ClassDependency(contentKey, ClassFileReader.readReferencedTypeNames(bytes));
+                } catch (IOException ex) {
+                    return new ClassDependency(contentKey, Collections.emptySet());
+                }
+            case "jar":
+                String externalForm = classFileUrl.toExternalForm();
+                String jarUrl = externalForm.substring("jar:".length(), externalForm.indexOf("!/"));
+                return new ClassDependency(getJarKey(jarUrl), Collections.emptySet());
+            default:
+                // JDK modules and other sources that do not change between builds
+                return NO_DEPENDENCY;
+        }
+    }
+
+    private String getJarKey(String jarUrl) throws IOException {
+        String jarKey = jarKeys.get(jarUrl);
+        if ((jarKey == null) && !jarUrl.startsWith("file:")) {
+            jarKey = jarUrl;
+        } else if (jarKey == null) {
+            try {
+                Path jar = Paths.get(new URL(jarUrl).toURI());
+                BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+                jarKey = String.format("%s|%d|%d", jar, attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (URISyntaxException ex) {
+                throw new IOException("Invalid jar " + jarUrl, ex);
+            }
+            jarKeys.put(jarUrl, jarKey);
+        }
+        return jarKey;
+    }
+
+    private static class ClassDependency {
+
+        // Null if the class does not contribute to the hash
+        private final String contentKey;
+        private final Set<String> referencedTypeNames;
+
+        private ClassDependency(String contentKey, Set<String> referencedTypeNames) {
+            this.contentKey = contentKey;
+            this.referencedTypeNames = referencedTypeNames;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+class ClassFileInfo {
+
+    private String name;
+    private String superName;
+    private List<String> interfaceNames;
+    private List<String> annotationNames;
+    private boolean annotation;
+
+}
@@ -0,0 +1,518 @@
+package com.youengineering.openapi.reflection;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads the type hierarchy, the class-level annotations and the parameter
+ * names directly out of the constant pool and attributes of a class file,
+ * without defining the class.
+ */
+class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+    private static final String ANNOTATION_DEFAULT = "AnnotationDefault";
+    private static final String SIGNATURE = "Signature";
+    private static final String EXCEPTIONS = "Exceptions";
+    private static final String CODE = "Code";
+    private static final String METHOD_PARAMETERS = "MethodParameters";
+    private static final String LOCAL_VARIABLE_TABLE = "LocalVariableTable";
+
+    static ClassFileInfo read(byte[] bytes) throws IOException {
+        try {
+            return new ClassFileReader(ByteBuffer.wrap(bytes)).read();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Malformed class file", ex);
+        }
+    }
+
+    /**
+     * Returns the names of all types a class file refers to in its hierarchy,
+     * its field and method signatures and its annotations, which is all that
+     * reflection can observe of a class. Method bodies are not looked at.
+     */
+    static Set<String> readReferencedTypeNames(byte[] bytes) throws IOException {
+        try {
+            return new ClassFileReader(ByteBuffer.wrap(bytes)).readReferencedTypeNames();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Malformed class file", ex);
+        }
+    }
+
+    /**
+     * Returns the parameter names of all methods and constructors that have
+     * them, keyed by name and descriptor, e.g. {@code find(Ljava/lang/String;I)V}.
+     * They are taken from the MethodParameters attribute of classes compiled
+     * with -parameters, and otherwise from the local variable table of
+     * classes compiled with debug information.
+     */
+    static Map<String, String[]> readParameterNames(byte[] bytes) throws IOException {
+        try {
+            return new ClassFileReader(ByteBuffer.wrap(bytes)).readParameterNames();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Malformed class file", ex);
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private int[] constantOffsets;
+    private String[] utf8Cache;
+
+    private ClassFileReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    private ClassFileInfo read() throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // Minor and major version
+        buffer.getInt();
+        readConstantPool();
+
+        int accessFlags = readUnsignedShort();
+        String name = readClassName(readUnsignedShort());
+        int superIndex = readUnsignedShort();
+        String superName = ((superIndex != 0) ? readClassName(superIndex) : null);
+        int interfacesCount = readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames.add(readClassName(readUnsignedShort()));
+        }
+        skipMembers();
+        skipMembers();
+
+        List<String> annotationNames = new ArrayList<>();
+        int attributesCount = readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort());
+            int attributeLength = buffer.getInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                int annotationsCount = readUnsignedShort();
+                for (int j = 0; j < annotationsCount; j++) {
+                    annotationNames.add(readAnnotation(null));
+                }
+            } else {
+                skip(attributeLength);
+            }
+        }
+        return new ClassFileInfo(name, superName, interfaceNames, annotationNames, (accessFlags & ACC_ANNOTATION) != 0);
+    }
+
+    private Set<String> readReferencedTypeNames() throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // Minor and major version
+        buffer.getInt();
+        readConstantPool();
+
+        Set<String> typeNames = new TreeSet<>();
+        // Access flags and this class
+        skip(4);
+        int superIndex = readUnsignedShort();
+        if (superIndex != 0) {
+            typeNames.add(readClassName(superIndex));
+        }
+        int interfacesCount = readUnsignedShort();
+        for (int i = 0; i < interfacesCount; i++) {
+            typeNames.add(readClassName(readUnsignedShort()));
+        }
+        // Fields and methods
+        for (int i = 0; i < 2; i++) {
+            int membersCount = readUnsignedShort();
+            for (int j = 0; j < membersCount; j++) {
+                // Access flags and name
+                skip(4);
+                addDescriptorTypeNames(readUtf8(readUnsignedShort()), typeNames);
+                readAttributesTypeNames(typeNames);
+            }
+        }
+        readAttributesTypeNames(typeNames);
+        return typeNames;
+    }
+
+    private Map<String, String[]> readParameterNames() throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // Minor and major version
+        buffer.getInt();
+        readConstantPool();
+
+        // Access flags, this class and super class
+        skip(6);
+        int interfacesCount = readUnsignedShort();
+        skip(interfacesCount * 2);
+        skipMembers();
+
+        Map<String, String[]> parameterNames = new HashMap<>();
+        int methodsCount = readUnsignedShort();
+        for (int i = 0; i < methodsCount; i++) {
+            int accessFlags = readUnsignedShort();
+            String name = readUtf8(readUnsignedShort());
+            String descriptor = readUtf8(readUnsignedShort());
+            int[] parameterSlots = getParameterSlots(descriptor, (accessFlags & ACC_STATIC) != 0);
+            String[] declaredNames = null;
+            String[] localVariableNames = null;
+            int attributesCount = readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                String attributeName = readUtf8(readUnsignedShort());
+                int attributeLength = buffer.getInt();
+                int attributeEnd = buffer.position() + attributeLength;
+                if (METHOD_PARAMETERS.equals(attributeName)) {
+                    declaredNames = readMethodParameters(parameterSlots.length);
+                } else if (CODE.equals(attributeName)) {
+                    localVariableNames = readLocalVariableNames(parameterSlots);
+                }
+                buffer.position(attributeEnd);
+            }
+            String[] names = ((declaredNames != null) ? declaredNames : localVariableNames);
+            if ((names != null) && (parameterSlots.length > 0)) {
+                parameterNames.put(name + descriptor, names);
+            }
+        }
+        return parameterNames;
+    }
+
+    private String[] readMethodParameters(int parametersCount) {
+        int namesCount = buffer.get() & 0xFF;
+        // Compilers may add synthetic parameters, e.g. to constructors of inner classes, which are left out here
+        if (namesCount != parametersCount) {
+            return null;
+        }
+        String[] names = new String[namesCount];
+        for (int i = 0; i < namesCount; i++) {
+            int nameIndex = readUnsignedShort();
+            // Access flags
+            skip(2);
+            if (nameIndex == 0) {
+                return null;
+            }
+            names[i] = readUtf8(nameIndex);
+        }
+        return names;
+    }
+
+    private String[] readLocalVariableNames(int[] parameterSlots) {
+        // Max stack and max locals
+        skip(4);
+        skip(buffer.getInt());
+        int exceptionTableLength = readUnsignedShort();
+        skip(exceptionTableLength * 8);
+        String[] names = new String[parameterSlots.length];
+        int attributesCount = readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort());
+            int attributeLength = buffer.getInt();
+            int attributeEnd = buffer.position() + attributeLength;
+            if (LOCAL_VARIABLE_TABLE.equals(attributeName)) {
+                int localVariablesCount = readUnsignedShort();
+                for (int j = 0; j < localVariablesCount; j++) {
+                    int startPc = readUnsignedShort();
+                    // Length
+                    skip(2);
+                    int nameIndex = readUnsignedShort();
+                    // Descriptor
+                    skip(2);
+                    int slot = readUnsignedShort();
+                    // Parameters are the only local variables that are live from the start
+                    if (startPc == 0) {
+                        for (int k = 0; k < parameterSlots.length; k++) {
+                            if (parameterSlots[k] == slot) {
+                                names[k] = readUtf8(nameIndex);
+                            }
+                        }
+                    }
+                }
+            }
+            buffer.position(attributeEnd);
+        }
+        for (String name : names) {
+            if (name == null) {
+                return null;
+            }
+        }
+        return names;
+    }
+
+    private void readAttributesTypeNames(Set<String> typeNames) throws IOException {
+        int attributesCount = readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort());
+            int attributeLength = buffer.getInt();
+            int attributeEnd = buffer.position() + attributeLength;
+            switch (attributeName) {
+                case SIGNATURE:
+                    addDescriptorTypeNames(readUtf8(readUnsignedShort()), typeNames);
+                    break;
+                case EXCEPTIONS:
+                    int exceptionsCount = readUnsignedShort();
+                    for (int j = 0; j < exceptionsCount; j++) {
+                        typeNames.add(readClassName(readUnsignedShort()));
+                    }
+                    break;
+                case RUNTIME_VISIBLE_ANNOTATIONS:
+                    readAnnotations(typeNames);
+                    break;
+                case RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS:
+                    int parametersCount = buffer.get() & 0xFF;
+                    for (int j = 0; j < parametersCount; j++) {
+                        readAnnotations(typeNames);
+                    }
+                    break;
+                case ANNOTATION_DEFAULT:
+                    skipElementValue(typeNames);
+                    break;
+            }
+            buffer.position(attributeEnd);
+        }
+    }
+
+    private void readAnnotations(Set<String> typeNames) throws IOException {
+        int annotationsCount = readUnsignedShort();
+        for (int i = 0; i < annotationsCount; i++) {
+            typeNames.add(readAnnotation(typeNames));
+        }
+    }
+
+    private void readConstantPool() throws IOException {
+        int constantPoolCount = readUnsignedShort();
+        constantOffsets = new int[constantPoolCount];
+        utf8Cache = new String[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = buffer.get() & 0xFF;
+            constantOffsets[i] = buffer.position();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    skip(readUnsignedShort());
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skip(8);
+                    // Long and double constants take up two entries
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private void skipMembers() {
+        int membersCount = readUnsignedShort();
+        for (int i = 0; i < membersCount; i++) {
+            // Access flags, name and descriptor
+            skip(6);
+            skipAttributes();
+        }
+    }
+
+    private void skipAttributes() {
+        int attributesCount = readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            skip(2);
+            skip(buffer.getInt());
+        }
+    }
+
+    /**
+     * Returns the annotation's type name, and collects the types referenced
+     * by its values if typeNames is not null.
+     */
+    private String readAnnotation(Set<String> typeNames) throws IOException {
+        String descriptor = readUtf8(readUnsignedShort());
+        int elementValuePairsCount = readUnsignedShort();
+        for (int i = 0; i < elementValuePairsCount; i++) {
+            skip(2);
+            skipElementValue(typeNames);
+        }
+        return descriptorToClassName(descriptor);
+    }
+
+    private void skipElementValue(Set<String> typeNames) throws IOException {
+        int tag = buffer.get() & 0xFF;
+        switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+                skip(2);
+                break;
+            case 'c':
+                String classDescriptor = readUtf8(readUnsignedShort());
+                if (typeNames != null) {
+                    addDescriptorTypeNames(classDescriptor, typeNames);
+                }
+                break;
+            case 'e':
+                String enumDescriptor = readUtf8(readUnsignedShort());
+                if (typeNames != null) {
+                    addDescriptorTypeNames(enumDescriptor, typeNames);
+                }
+                skip(2);
+                break;
+            case '@':
+                String annotationName = readAnnotation(typeNames);
+                if (typeNames != null) {
+                    typeNames.add(annotationName);
+                }
+                break;
+            case '[':
+                int valuesCount = readUnsignedShort();
+                for (int i = 0; i < valuesCount; i++) {
+                    skipElementValue(typeNames);
+                }
+                break;
+            default:
+                throw new IOException("Unknown element value tag " + (char) tag);
+        }
+    }
+
+    private String readClassName(int classIndex) {
+        int nameIndex = buffer.getShort(constantOffsets[classIndex]) & 0xFFFF;
+        return readUtf8(nameIndex).replace('/', '.');
+    }
+
+    private String readUtf8(int utf8Index) {
+        String value = utf8Cache[utf8Index];
+        if (value == null) {
+            int offset = constantOffsets[utf8Index];
+            int length = buffer.getShort(offset) & 0xFFFF;
+            value = decodeModifiedUtf8(offset + 2, length);
+            utf8Cache[utf8Index] = value;
+        }
+        return value;
+    }
+
+    private String decodeModifiedUtf8(int offset, int length) {
+        char[] chars = new char[length];
+        int charsLength = 0;
+        int end = offset + length;
+        int position = offset;
+        while (position < end) {
+            int b = buffer.get(position++) & 0xFF;
+            if (b < 0x80) {
+                chars[charsLength++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[charsLength++] = (char) (((b & 0x1F) << 6) | (buffer.get(position++) & 0x3F));
+            } else {
+                int b2 = buffer.get(position++) & 0x3F;
+                int b3 = buffer.get(position++) & 0x3F;
+                chars[charsLength++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+        return new String(chars, 0, charsLength);
+    }
+
+    private int readUnsignedShort() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private void skip(int length) {
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Collects the class types of a field or method descriptor or a generic
+     * signature, e.g. {@code (Ljava/util/List<Lcom/example/Pet;>;)V}.
+     */
+    private static void addDescriptorTypeNames(String descriptor, Set<String> typeNames) {
+        int position = 0;
+        while (position < descriptor.length()) {
+            if (descriptor.charAt(position) == 'L') {
+                int end = position + 1;
+                while ((end < descriptor.length()) && (descriptor.charAt(end) != ';') && (descriptor.charAt(end) != '<')) {
+                    end++;
+                }
+                if (end > position + 1) {
+                    typeNames.add(descriptor.substring(position + 1, end).replace('/', '.'));
+                }
+                position = end;
+            } else {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Returns the local variable slot of each parameter of a method
+     * descriptor. The receiver takes up the first slot of instance methods,
+     * and long and double values take up two slots each.
+     */
+    private static int[] getParameterSlots(String methodDescriptor, boolean staticMethod) {
+        List<Integer> parameterSlots = new ArrayList<>();
+        int slot = (staticMethod ? 0 : 1);
+        int position = 1;
+        while (methodDescriptor.charAt(position) != ')') {
+            char type = methodDescriptor.charAt(position);
+            parameterSlots.add(slot);
+            slot += (((type == 'J') || (type == 'D')) ? 2 : 1);
+            while (methodDescriptor.charAt(position) == '[') {
+                position++;
+            }
+            position = ((methodDescriptor.charAt(position) == 'L') ? methodDescriptor.indexOf(';', position) : position) + 1;
+        }
+        return parameterSlots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String descriptorToClassName(String descriptor) {
+        // Annotation type descriptors have the form "Lcom/example/Annotation;"
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+}
@@ -0,0 +1,355 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Scans the class files of the included packages straight from classpath
+ * directories and jars. Class files whose fingerprint matches the previous
+ * scan result are reused instead of being read again.
+ */
+class ClasspathScanner {
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final PackageFilter packageFilter;
+    private final JarScanCache jarScanCache;
+    private final int threads;
+    private final AtomicInteger reusedClassFiles = new AtomicInteger();
+    private final AtomicInteger readClassFiles = new AtomicInteger();
+    private final AtomicInteger sharedClassFiles = new AtomicInteger();
+    // Whether the scan result differs in any way from the previous one
+    @Getter
+    private volatile boolean modified;
+
+    ClasspathScanner(String sourcePackage) {
+        this(PackageFilter.of(sourcePackage), null, 1);
+    }
+
+    ClasspathScanner(PackageFilter packageFilter, JarScanCache jarScanCache, int threads) {
+        this.packageFilter = packageFilter;
+        this.jarScanCache = jarScanCache;
+        this.threads = threads;
+    }
+
+    int getReusedClassFiles() {
+        return reusedClassFiles.get();
+    }
+
+    int getReadClassFiles() {
+        return readClassFiles.get();
+    }
+
+    int getSharedClassFiles() {
+        return sharedClassFiles.get();
+    }
+
+    /**
+     * Returns the classpath roots containing any included package, or all
+     * given URLs if no include packages are configured.
+     */
+    Set<URL> getRoots(ClassLoader classLoader, URL[] urls) throws IOException {
+        Set<URL> roots = new LinkedHashSet<>();
+        List<String> rootPaths = packageFilter.getRootPaths();
+        if (rootPaths.contains("")) {
+            Collections.addAll(roots, urls);
+            return roots;
+        }
+        for (String rootPath : rootPaths) {
+            Enumeration<URL> packageUrls = classLoader.getResources(rootPath);
+            while (packageUrls.hasMoreElements()) {
+                String packageUrl = packageUrls.nextElement().toExternalForm();
+                int packagePathIndex = packageUrl.lastIndexOf(rootPath);
+                if (packagePathIndex > 0) {
+                    roots.add(new URL(packageUrl.substring(0, packagePathIndex)));
+                }
+            }
+        }
+        return roots;
+    }
+
+    AnnotationIndex scan(Collection<URL> roots) throws IOException {
+        return AnnotationIndex.of(scan(roots, Collections.emptyMap()).values());
+    }
+
+    /**
+     * Scans the given roots, keyed by their external form in the returned map
+     * (in classpath order), reusing the matching parts of the previous result.
+     */
+    Map<String, ScannedElement> scan(Collection<URL> roots, Map<String, ScannedElement> previousElements) throws IOException {
+        Map<String, ElementScan> elementScans = new LinkedHashMap<>();
+        for (URL root : roots) {
+            Path path = toPath(root);
+            if (path == null) {
+                continue;
+            }
+            String key = root.toExternalForm();
+            if (!previousElements.containsKey(key)) {
+                modified = true;
+            }
+            ScannedElement previousElement = previousElements.get(key);
+            if (Files.isDirectory(path)) {
+                elementScans.put(key, () -> scanDirectory(path, previousElement));
+            } else if (Files.isRegularFile(path)) {
+                elementScans.put(key, () -> scanJar(path, previousElement));
+            }
+        }
+        Map<String, ScannedElement> elements = runElementScans(elementScans);
+        if (elements.size() != previousElements.size()) {
+            modified = true;
+        }
+        return elements;
+    }
+
+    /**
+     * Classpath elements are independent of each other, so they are scanned
+     * in parallel and merged back in classpath order afterwards.
+     */
+    private Map<String, ScannedElement> runElementScans(Map<String, ElementScan> elementScans) throws IOException {
+        Map<String, ScannedElement> elements = new LinkedHashMap<>();
+        if ((threads <= 1) || (elementScans.size() <= 1)) {
+            for (Map.Entry<String, ElementScan> elementScanEntry : elementScans.entrySet()) {
+                elements.put(elementScanEntry.getKey(), elementScanEntry.getValue().scan());
+            }
+            return elements;
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(threads, elementScans.size()));
+        try {
+            Map<String, Future<ScannedElement>> futures = new LinkedHashMap<>();
+            for (Map.Entry<String, ElementScan> elementScanEntry : elementScans.entrySet()) {
+                ElementScan elementScan = elementScanEntry.getValue();
+                futures.put(elementScanEntry.getKey(), forkJoinPool.submit(elementScan::scan));
+            }
+            for (Map.Entry<String, Future<ScannedElement>> futureEntry : futures.entrySet()) {
+                elements.put(futureEntry.getKey(), futureEntry.getValue().get());
+            }
+            return elements;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning the classpath");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    private ScannedElement scanDirectory(Path directory, ScannedElement previousElement) throws IOException {
+        Map<String, ScannedClassFile> previousClassFiles = ((previousElement != null) ? previousElement.getClassFiles() : Collections.emptyMap());
+        Map<String, ScannedClassFile> classFiles = new TreeMap<>();
+        for (String rootPath : packageFilter.getRootPaths()) {
+            Path startDirectory = directory.resolve(rootPath);
+            if (!Files.isDirectory(startDirectory)) {
+                continue;
+            }
+            Files.walkFileTree(startDirectory, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path subdirectory, BasicFileAttributes attributes) {
+                    // Excluded packages are pruned without listing their contents
+                    return (packageFilter.includesDirectory(toEntryName(directory, subdirectory)) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE);
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    String entryName = toEntryName(directory, file);
+                    if (attributes.isRegularFile() && isCandidate(entryName)) {
+                        classFiles.put(entryName, scanClassFile(file, attributes, previousClassFiles.get(entryName)));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        if (classFiles.size() != previousClassFiles.size()) {
+            modified = true;
+        }
+        return new ScannedElement(null, classFiles);
+    }
+
+    private ScannedClassFile scanClassFile(Path file, BasicFileAttributes attributes, ScannedClassFile previousClassFile) throws IOException {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if ((previousClassFile != null) && previousClassFile.getFingerprint().hasSameStat(size, lastModified)) {
+            reusedClassFiles.incrementAndGet();
+            return previousClassFile;
+        }
+        modified = true;
+        byte[] bytes = Files.readAllBytes(file);
+        Fingerprint fingerprint = new Fingerprint(bytes.length, lastModified, Fingerprint.crc32(bytes));
+        if ((previousClassFile != null) && previousClassFile.getFingerprint().hasSameContent(fingerprint)) {
+            reusedClassFiles.incrementAndGet();
+            return new ScannedClassFile(fingerprint, previousClassFile.getClassFileInfo());
+        }
+        return new ScannedClassFile(fingerprint, readClassFile(bytes));
+    }
+
+    private ScannedElement scanJar(Path jar, ScannedElement previousElement) throws IOException {
+        long size = Files.size(jar);
+        long lastModified = Files.getLastModifiedTime(jar).toMillis();
+        if ((previousElement != null) && (previousElement.getFingerprint() == null)) {
+            previousElement = null;
+        }
+        if ((previousElement != null) && previousElement.getFingerprint().hasSameStat(size, lastModified)) {
+            reusedClassFiles.addAndGet(previousElement.getClassFiles().size());
+            return previousElement;
+        }
+        modified = true;
+        Fingerprint fingerprint = new Fingerprint(size, lastModified, Fingerprint.sha256(jar));
+        if ((previousElement != null) && previousElement.getFingerprint().hasSameContent(fingerprint)) {
+            reusedClassFiles.addAndGet(previousElement.getClassFiles().size());
+            return new ScannedElement(fingerprint, previousElement.getClassFiles());
+        }
+        Map<String, ScannedClassFile> previousClassFiles = ((previousElement != null) ? previousElement.getClassFiles() : Collections.emptyMap());
+        if (jarScanCache == null) {
+            return new ScannedElement(fingerprint, scanJarEntries(jar, previousClassFiles, true));
+        }
+        Map<String, ScannedClassFile> allClassFiles = jarScanCache.get(fingerprint.getHash());
+        if (allClassFiles == null) {
+            allClassFiles = scanJarEntries(jar, previousClassFiles, false);
+            jarScanCache.put(fingerprint.getHash(), fingerprint, allClassFiles);
+        } else {
+            sharedClassFiles.addAndGet(allClassFiles.size());
+        }
+        Map<String, ScannedClassFile> classFiles = new TreeMap<>();
+        for (Map.Entry<String, ScannedClassFile> classFileEntry : allClassFiles.entrySet()) {
+            if (packageFilter.includesEntry(classFileEntry.getKey())) {
+                classFiles.put(classFileEntry.getKey(), classFileEntry.getValue());
+            }
+        }
+        return new ScannedElement(fingerprint, classFiles);
+    }
+
+    private Map<String, ScannedClassFile> scanJarEntries(Path jar, Map<String, ScannedClassFile> previousClassFiles, boolean includedPackagesOnly) throws IOException {
+        List<String> namePrefixes = new ArrayList<>();
+        for (String rootPath : (includedPackagesOnly ? packageFilter.getRootPaths() : Collections.singletonList(""))) {
+            namePrefixes.add(rootPath.isEmpty() ? "" : (rootPath + '/'));
+        }
+        try (JarReader jarReader = JarReader.open(jar)) {
+            if (jarReader != null) {
+                Map<String, ScannedClassFile> classFiles = new TreeMap<>();
+                List<JarReader.Entry> entries = new ArrayList<>();
+                for (String namePrefix : namePrefixes) {
+                    entries.addAll(jarReader.getClassFileEntries(namePrefix));
+                }
+                for (JarReader.Entry entry : entries) {
+                    if (isClassFile(entry.getName()) && (!includedPackagesOnly || packageFilter.includesEntry(entry.getName()))) {
+                        // The central directory already carries size and CRC, so unchanged entries are never read
+                        Fingerprint entryFingerprint = new Fingerprint(entry.getSize(), entry.getTime(), Fingerprint.crc32(entry.getCrc()));
+                        classFiles.put(entry.getName(), scanJarEntry(entryFingerprint, previousClassFiles.get(entry.getName()), () -> jarReader.read(entry)));
+                    }
+                }
+                return classFiles;
+            }
+        } catch (ZipException ex) {
+            // Leave jars with unusual layouts to ZipFile
+        }
+        return scanZipFileEntries(jar, previousClassFiles, includedPackagesOnly);
+    }
+
+    private Map<String, ScannedClassFile> scanZipFileEntries(Path jar, Map<String, ScannedClassFile> previousClassFiles, boolean includedPackagesOnly) throws IOException {
+        Map<String, ScannedClassFile> classFiles = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (!entry.isDirectory() && isClassFile(entryName) && (!includedPackagesOnly || packageFilter.includesEntry(entryName))) {
+                    Fingerprint entryFingerprint = new Fingerprint(entry.getSize(), entry.getTime(), Fingerprint.crc32(entry.getCrc()));
+                    classFiles.put(entryName, scanJarEntry(entryFingerprint, previousClassFiles.get(entryName), () -> {
+                        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                            return readAllBytes(inputStream);
+                        }
+                    }));
+                }
+            }
+        }
+        return classFiles;
+    }
+
+    private ScannedClassFile scanJarEntry(Fingerprint entryFingerprint, ScannedClassFile previousClassFile, EntryContent entryContent) throws IOException {
+        if ((previousClassFile != null) && previousClassFile.getFingerprint().hasSameContent(entryFingerprint)) {
+            reusedClassFiles.incrementAndGet();
+            return new ScannedClassFile(entryFingerprint, previousClassFile.getClassFileInfo());
+        }
+        return new ScannedClassFile(entryFingerprint, readClassFile(entryContent.read()));
+    }
+
+    private boolean isCandidate(String entryName) {
+        return isClassFile(entryName) && packageFilter.includesEntry(entryName);
+    }
+
+    private static boolean isClassFile(String entryName) {
+        return entryName.endsWith(CLASS_FILE_SUFFIX)
+            && !entryName.endsWith("package-info.class")
+            && !entryName.endsWith("module-info.class");
+    }
+
+    private ClassFileInfo readClassFile(byte[] bytes) {
+        readClassFiles.incrementAndGet();
+        try {
+            return ClassFileReader.read(bytes);
+        } catch (IOException ex) {
+            // Not a readable class file (e.g. a resource named *.class), which is ignored like any other resource
+            return null;
+        }
+    }
+
+    private static String toEntryName(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static Path toPath(URL root) throws IOException {
+        String externalForm = root.toExternalForm();
+        if (externalForm.startsWith("jar:")) {
+            int separatorIndex = externalForm.indexOf("!/");
+            externalForm = externalForm.substring("jar:".length(), ((separatorIndex != -1) ? separatorIndex : externalForm.length()));
+        }
+        if (!externalForm.startsWith("file:")) {
+            return null;
+        }
+        try {
+            return Paths.get(new URL(externalForm).toURI());
+        } catch (URISyntaxException ex) {
+            throw new IOException("Invalid classpath element " + root, ex);
+        }
+    }
+
+    private interface ElementScan {
+        ScannedElement scan() throws IOException;
+    }
+
+    private interface EntryContent {
+        byte[] read() throws IOException;
+    }
+
+    static byte[] readAllBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(inputStream.available(), 1024));
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+}
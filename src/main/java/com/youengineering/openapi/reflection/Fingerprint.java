@@ -0,0 +1,71 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+public class Fingerprint {
+
+    private long size;
+    private long lastModified;
+    private byte[] hash;
+
+    boolean hasSameStat(long size, long lastModified) {
+        return (this.size == size) && (this.lastModified == lastModified);
+    }
+
+    boolean hasSameContent(Fingerprint fingerprint) {
+        return (size == fingerprint.size) && Arrays.equals(hash, fingerprint.hash);
+    }
+
+    static byte[] crc32(byte[] bytes) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length);
+        return crc32(crc32.getValue());
+    }
+
+    static byte[] crc32(long crc) {
+        return new byte[] { (byte) (crc >>> 24), (byte) (crc >>> 16), (byte) (crc >>> 8), (byte) crc };
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            stringBuilder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return stringBuilder.toString();
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static byte[] sha256(Path file) throws IOException {
+        MessageDigest messageDigest = sha256();
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, length);
+            }
+        }
+        return messageDigest.digest();
+    }
+}
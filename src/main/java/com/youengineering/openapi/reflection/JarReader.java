@@ -0,0 +1,216 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads jars through positional reads on a {@link FileChannel}: the central
+ * directory is read once, entries are filtered by their raw name bytes, and
+ * only the data of the selected entries is ever read and inflated. Jars that
+ * need ZIP64 or encryption support are left to {@link java.util.zip.ZipFile}.
+ */
+class JarReader implements Closeable {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_ENCRYPTED = 0x1;
+    private static final byte[] CLASS_FILE_SUFFIX = ".class".getBytes(StandardCharsets.UTF_8);
+
+    private final FileChannel fileChannel;
+    private final ByteBuffer centralDirectory;
+    private final long baseOffset;
+    private final Inflater inflater = new Inflater(true);
+
+    private JarReader(FileChannel fileChannel, ByteBuffer centralDirectory, long baseOffset) {
+        this.fileChannel = fileChannel;
+        this.centralDirectory = centralDirectory;
+        this.baseOffset = baseOffset;
+    }
+
+    /**
+     * Returns null if the jar layout is not supported by this reader.
+     */
+    static JarReader open(Path jar) throws IOException {
+        FileChannel fileChannel = FileChannel.open(jar, StandardOpenOption.READ);
+        try {
+            JarReader jarReader = open(fileChannel);
+            if (jarReader == null) {
+                fileChannel.close();
+            }
+            return jarReader;
+        } catch (IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+
+    private static JarReader open(FileChannel fileChannel) throws IOException {
+        long fileSize = fileChannel.size();
+        int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(fileChannel, fileSize - tailSize, tailSize);
+        for (int endPosition = tailSize - END_SIZE; endPosition >= 0; endPosition--) {
+            if ((tail.getInt(endPosition) == END_SIGNATURE) && ((endPosition + END_SIZE + (tail.getShort(endPosition + 20) & 0xFFFF)) == tailSize)) {
+                int entriesCount = tail.getShort(endPosition + 10) & 0xFFFF;
+                long centralDirectorySize = tail.getInt(endPosition + 12) & 0xFFFFFFFFL;
+                long centralDirectoryOffset = tail.getInt(endPosition + 16) & 0xFFFFFFFFL;
+                if ((entriesCount == 0xFFFF) || (centralDirectorySize == ZIP64_MAGIC) || (centralDirectoryOffset == ZIP64_MAGIC)) {
+                    return null;
+                }
+                // Jars may be prefixed with other data (e.g. a launch script), which shifts all offsets
+                long centralDirectoryPosition = (fileSize - tailSize) + endPosition - centralDirectorySize;
+                if (centralDirectoryPosition < 0) {
+                    return null;
+                }
+                ByteBuffer centralDirectory = read(fileChannel, centralDirectoryPosition, (int) centralDirectorySize);
+                return new JarReader(fileChannel, centralDirectory, centralDirectoryPosition - centralDirectoryOffset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all class file entries whose name starts with the given prefix,
+     * without decoding the names of any other entry.
+     */
+    List<Entry> getClassFileEntries(String namePrefix) throws IOException {
+        byte[] namePrefixBytes = namePrefix.getBytes(StandardCharsets.UTF_8);
+        List<Entry> entries = new ArrayList<>();
+        int position = 0;
+        while (position + CENTRAL_HEADER_SIZE <= centralDirectory.limit()) {
+            if (centralDirectory.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new ZipException("Invalid central directory header");
+            }
+            int nameLength = centralDirectory.getShort(position + 28) & 0xFFFF;
+            int extraLength = centralDirectory.getShort(position + 30) & 0xFFFF;
+            int commentLength = centralDirectory.getShort(position + 32) & 0xFFFF;
+            int namePosition = position + CENTRAL_HEADER_SIZE;
+            if (startsWith(namePosition, nameLength, namePrefixBytes) && endsWith(namePosition, nameLength, CLASS_FILE_SUFFIX)) {
+                entries.add(readEntry(position, namePosition, nameLength));
+            }
+            position = namePosition + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private Entry readEntry(int position, int namePosition, int nameLength) throws ZipException {
+        int flags = centralDirectory.getShort(position + 8) & 0xFFFF;
+        int method = centralDirectory.getShort(position + 10) & 0xFFFF;
+        long time = centralDirectory.getInt(position + 12) & 0xFFFFFFFFL;
+        long crc = centralDirectory.getInt(position + 16) & 0xFFFFFFFFL;
+        long compressedSize = centralDirectory.getInt(position + 20) & 0xFFFFFFFFL;
+        long size = centralDirectory.getInt(position + 24) & 0xFFFFFFFFL;
+        long localHeaderOffset = centralDirectory.getInt(position + 42) & 0xFFFFFFFFL;
+        if (((flags & FLAG_ENCRYPTED) != 0) || ((method != METHOD_STORED) && (method != METHOD_DEFLATED))
+         || (compressedSize == ZIP64_MAGIC) || (size == ZIP64_MAGIC) || (localHeaderOffset == ZIP64_MAGIC)) {
+            throw new ZipException("Unsupported jar entry");
+        }
+        byte[] nameBytes = new byte[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            nameBytes[i] = centralDirectory.get(namePosition + i);
+        }
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+        return new Entry(name, method, time, crc, compressedSize, size, baseOffset + localHeaderOffset);
+    }
+
+    byte[] read(Entry entry) throws IOException {
+        ByteBuffer localHeader = read(fileChannel, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (localHeader.getInt(0) != LOCAL_SIGNATURE) {
+            throw new ZipException("Invalid local header of " + entry.name);
+        }
+        long dataOffset = entry.localHeaderOffset + LOCAL_HEADER_SIZE + (localHeader.getShort(26) & 0xFFFF) + (localHeader.getShort(28) & 0xFFFF);
+        ByteBuffer data = read(fileChannel, dataOffset, (int) entry.compressedSize);
+        if (entry.method == METHOD_STORED) {
+            return data.array();
+        }
+        byte[] bytes = new byte[(int) entry.size];
+        inflater.reset();
+        inflater.setInput(data.array());
+        try {
+            int length = 0;
+            while (length < bytes.length) {
+                int inflatedLength = inflater.inflate(bytes, length, bytes.length - length);
+                if ((inflatedLength == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflatedLength;
+            }
+            if (length != bytes.length) {
+                throw new ZipException("Invalid size of " + entry.name);
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException("Invalid compressed data of " + entry.name + ": " + ex.getMessage());
+        }
+        return bytes;
+    }
+
+    private boolean startsWith(int namePosition, int nameLength, byte[] prefix) {
+        if (nameLength < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (centralDirectory.get(namePosition + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean endsWith(int namePosition, int nameLength, byte[] suffix) {
+        return (nameLength >= suffix.length) && startsWith(namePosition + nameLength - suffix.length, suffix.length, suffix);
+    }
+
+    private static ByteBuffer read(FileChannel fileChannel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of jar");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        fileChannel.close();
+    }
+
+    @AllArgsConstructor
+    @Getter
+    static class Entry {
+
+        private String name;
+        private int method;
+        // MS-DOS date and time, as stored in the central directory
+        private long time;
+        private long crc;
+        private long compressedSize;
+        private long size;
+        private long localHeaderOffset;
+
+    }
+}
@@ -0,0 +1,51 @@
+package com.youengineering.openapi.reflection;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A machine-wide cache of jar scan results, addressed by the SHA-256 of the
+ * jar content. Unlike the module scan index, every class file of the jar is
+ * cached, so modules with different source packages share the same entries.
+ */
+class JarScanCache {
+
+    private static final String ELEMENT_KEY = "jar";
+
+    private final Path directory;
+    private final Log log;
+
+    JarScanCache(Path directory, Log log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    Map<String, ScannedClassFile> get(byte[] sha256) {
+        try {
+            ScannedElement element = getStore(sha256).read(null).get(ELEMENT_KEY);
+            return ((element != null) ? element.getClassFiles() : null);
+        } catch (IOException ex) {
+            // A corrupt entry is treated as missing and overwritten
+            log.debug("Ignoring unreadable jar scan cache entry: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    void put(byte[] sha256, Fingerprint fingerprint, Map<String, ScannedClassFile> classFiles) {
+        try {
+            getStore(sha256).write(null, Collections.singletonMap(ELEMENT_KEY, new ScannedElement(fingerprint, classFiles)));
+        } catch (IOException ex) {
+            log.warn("Unable to write jar scan cache entry: " + ex.getMessage());
+        }
+    }
+
+    private ScanIndexStore getStore(byte[] sha256) {
+        String hex = Fingerprint.toHex(sha256);
+        // Spread the entries over subdirectories to keep single directories small
+        return new ScanIndexStore(directory.resolve(hex.substring(0, 2)).resolve(hex + ".bin"));
+    }
+}
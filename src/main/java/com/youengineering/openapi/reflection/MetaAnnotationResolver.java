@@ -0,0 +1,66 @@
+package com.youengineering.openapi.reflection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Resolves the annotations present on annotation types, preferring the index
+ * and falling back to reading the class file through the class loader as a
+ * plain resource, so no annotation type is ever defined for the lookup.
+ */
+class MetaAnnotationResolver {
+
+    private final AnnotationIndex annotationIndex;
+    private final ClassLoader classLoader;
+    private final Map<String, List<String>> annotationNamesCache = new HashMap<>();
+
+    MetaAnnotationResolver(AnnotationIndex annotationIndex, ClassLoader classLoader) {
+        this.annotationIndex = annotationIndex;
+        this.classLoader = classLoader;
+    }
+
+    boolean isAnnotatedWith(String annotationName, String targetAnnotationName) {
+        Set<String> visitedAnnotationNames = new HashSet<>();
+        Deque<String> pendingAnnotationNames = new ArrayDeque<>();
+        pendingAnnotationNames.push(annotationName);
+        while (!pendingAnnotationNames.isEmpty()) {
+            String currentAnnotationName = pendingAnnotationNames.pop();
+            if (currentAnnotationName.equals(targetAnnotationName)) {
+                return true;
+            }
+            if (visitedAnnotationNames.add(currentAnnotationName)) {
+                pendingAnnotationNames.addAll(getAnnotationNames(currentAnnotationName));
+            }
+        }
+        return false;
+    }
+
+    private List<String> getAnnotationNames(String annotationName) {
+        // The JDK meta-annotations (@Retention, @Target, ...) are never meta-annotated with user annotations
+        if (annotationName.startsWith("java.lang.annotation.")) {
+            return Collections.emptyList();
+        }
+        return annotationNamesCache.computeIfAbsent(annotationName, this::readAnnotationNames);
+    }
+
+    private List<String> readAnnotationNames(String annotationName) {
+        ClassFileInfo classFileInfo = annotationIndex.get(annotationName);
+        if (classFileInfo == null) {
+            classFileInfo = readClassFile(annotationName);
+        }
+        return ((classFileInfo != null) ? classFileInfo.getAnnotationNames() : Collections.emptyList());
+    }
+
+    private ClassFileInfo readClassFile(String className) {
+        String resourceName = className.replace('.', '/') + ".class";
+        try (InputStream inputStream = classLoader.getResourceAsStream(resourceName)) {
+            if (inputStream == null) {
+                return null;
+            }
+            return ClassFileReader.read(ClasspathScanner.readAllBytes(inputStream));
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+}
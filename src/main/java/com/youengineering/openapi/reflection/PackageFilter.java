@@ -0,0 +1,133 @@
+package com.youengineering.openapi.reflection;
+
+import java.util.*;
+
+/**
+ * Decides which packages are part of the API, based on include and exclude
+ * packages compiled into a trie of package name segments. The most specific
+ * configured package wins, so an excluded package may be nested in an
+ * included one and vice versa. Without include packages, everything that is
+ * not excluded is included.
+ */
+class PackageFilter {
+
+    private final Node root = new Node();
+    private final List<String> includePackages;
+    private final List<String> excludePackages;
+
+    PackageFilter(Collection<String> includePackages, Collection<String> excludePackages) {
+        this.includePackages = normalize(includePackages);
+        this.excludePackages = normalize(excludePackages);
+        root.included = this.includePackages.isEmpty();
+        this.includePackages.forEach(includePackage -> getOrCreateNode(includePackage).included = true);
+        this.excludePackages.forEach(excludePackage -> getOrCreateNode(excludePackage).included = false);
+    }
+
+    static PackageFilter of(String sourcePackage) {
+        return new PackageFilter((sourcePackage != null) ? Collections.singletonList(sourcePackage) : Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static List<String> normalize(Collection<String> packageNames) {
+        Set<String> normalizedPackageNames = new TreeSet<>();
+        if (packageNames != null) {
+            for (String packageName : packageNames) {
+                if ((packageName != null) && !packageName.trim().isEmpty()) {
+                    normalizedPackageNames.add(packageName.trim());
+                }
+            }
+        }
+        return new ArrayList<>(normalizedPackageNames);
+    }
+
+    private Node getOrCreateNode(String packageName) {
+        Node node = root;
+        for (String segment : packageName.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        return node;
+    }
+
+    boolean includesPackage(String packageName) {
+        return includes(packageName.isEmpty() ? new String[0] : packageName.split("\\."), false);
+    }
+
+    /**
+     * Checks the package of a class file entry, e.g. {@code com/example/Api.class}.
+     */
+    boolean includesEntry(String entryName) {
+        int lastSeparatorIndex = entryName.lastIndexOf('/');
+        return includes((lastSeparatorIndex > 0) ? entryName.substring(0, lastSeparatorIndex).split("/") : new String[0], false);
+    }
+
+    /**
+     * Checks whether the given directory path (e.g. {@code com/example}) or any
+     * of its subdirectories may contain an included package, so scanning can
+     * skip the whole subtree otherwise.
+     */
+    boolean includesDirectory(String directoryPath) {
+        return includes(directoryPath.isEmpty() ? new String[0] : directoryPath.split("/"), true);
+    }
+
+    private boolean includes(String[] segments, boolean orBelow) {
+        Node node = root;
+        boolean included = root.included;
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return included;
+            }
+            if (node.included != null) {
+                included = node.included;
+            }
+        }
+        return included || (orBelow && node.hasIncludedDescendant());
+    }
+
+    /**
+     * Returns the outermost included package directories (e.g.
+     * {@code com/example}), where the empty path stands for the whole
+     * classpath element.
+     */
+    List<String> getRootPaths() {
+        if (includePackages.isEmpty()) {
+            return Collections.singletonList("");
+        }
+        List<String> rootPaths = new ArrayList<>();
+        for (String includePackage : includePackages) {
+            String rootPath = includePackage.replace('.', '/');
+            // The include packages are sorted, so an enclosing package is always added before
+            if (rootPaths.stream().noneMatch(previousRootPath -> rootPath.startsWith(previousRootPath + '/'))) {
+                rootPaths.add(rootPath);
+            }
+        }
+        return rootPaths;
+    }
+
+    /**
+     * A stable description of the configuration, which keys the stored scan
+     * results.
+     */
+    @Override
+    public String toString() {
+        if (excludePackages.isEmpty() && (includePackages.size() <= 1)) {
+            return (includePackages.isEmpty() ? "null" : includePackages.get(0));
+        }
+        return String.join(",", includePackages) + ";-" + String.join(",-", excludePackages);
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        // Null if the package inherits the decision of its parent
+        private Boolean included;
+
+        private boolean hasIncludedDescendant() {
+            for (Node child : children.values()) {
+                if (Boolean.TRUE.equals(child.included) || child.hasIncludedDescendant()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.youengineering.openapi.reflection;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Provides the parameter names of methods like Spring's
+ * {@link org.springframework.core.DefaultParameterNameDiscoverer}, but reads
+ * the class file of classes compiled without -parameters only once for all
+ * their methods. The table is attached to the class, so it does not keep
+ * classes of the project from being unloaded.
+ */
+public class ParameterNameTable {
+
+    private static final ClassValue<Map<String, String[]>> PARAMETER_NAMES = new ClassValue<Map<String, String[]>>() {
+
+        @Override
+        protected Map<String, String[]> computeValue(Class<?> type) {
+            return readParameterNames(type);
+        }
+    };
+
+    /**
+     * Returns null if the names are not known, i.e. if the class was compiled
+     * without -parameters and without debug information.
+     */
+    public static String[] getParameterNames(Method method) {
+        Parameter[] parameters = method.getParameters();
+        if ((parameters.length == 0) || parameters[0].isNamePresent()) {
+            String[] names = new String[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                names[i] = parameters[i].getName();
+            }
+            return names;
+        }
+        String[] names = PARAMETER_NAMES.get(method.getDeclaringClass()).get(method.getName() + getDescriptor(method));
+        return ((names != null) ? names.clone() : null);
+    }
+
+    private static Map<String, String[]> readParameterNames(Class<?> type) {
+        try (InputStream inputStream = type.getResourceAsStream(ClassUtils.getClassFileName(type))) {
+            if (inputStream == null) {
+                return Collections.emptyMap();
+            }
+            return ClassFileReader.readParameterNames(ClasspathScanner.readAllBytes(inputStream));
+        } catch (IOException ex) {
+            return Collections.emptyMap();
+        }
+    }
+
+    private static String getDescriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            appendDescriptor(descriptor, parameterType);
+        }
+        descriptor.append(')');
+        appendDescriptor(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder descriptor, Class<?> type) {
+        if (type.isArray()) {
+            // Array class names already have the form of descriptors, e.g. "[Ljava.lang.String;"
+            descriptor.append(type.getName().replace('.', '/'));
+        } else if (type.isPrimitive()) {
+            descriptor.append(getPrimitiveDescriptor(type));
+        } else {
+            descriptor.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+
+    private static char getPrimitiveDescriptor(Class<?> type) {
+        if (type == void.class) {
+            return 'V';
+        } else if (type == boolean.class) {
+            return 'Z';
+        } else if (type == byte.class) {
+            return 'B';
+        } else if (type == char.class) {
+            return 'C';
+        } else if (type == short.class) {
+            return 'S';
+        } else if (type == int.class) {
+            return 'I';
+        } else if (type == long.class) {
+            return 'J';
+        } else if (type == float.class) {
+            return 'F';
+        } else {
+            return 'D';
+        }
+    }
+}
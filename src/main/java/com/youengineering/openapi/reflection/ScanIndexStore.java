@@ -0,0 +1,205 @@
+package com.youengineering.openapi.reflection;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Persists the scanned classpath elements in a compact binary file, so the
+ * next execution only has to rescan what changed. All strings are written
+ * once into a string table and referenced by index afterwards.
+ */
+class ScanIndexStore {
+
+    private static final int MAGIC = 0x4F415349;
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    ScanIndexStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the stored elements, or an empty map if there is no usable index
+     * for the given package filter.
+     */
+    Map<String, ScannedElement> read(String packageFilter) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptyMap();
+        }
+        // Every counted item takes at least one byte, so no count can exceed the file size
+        long maxCount = Files.size(file);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if ((input.readInt() != MAGIC) || (input.readInt() != VERSION) || !input.readUTF().equals(String.valueOf(packageFilter))) {
+                return Collections.emptyMap();
+            }
+            String[] strings = new String[readCount(input, maxCount)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = input.readUTF();
+            }
+            int elementsCount = readCount(input, maxCount);
+            Map<String, ScannedElement> elements = new LinkedHashMap<>();
+            for (int i = 0; i < elementsCount; i++) {
+                String key = strings[readVarInt(input)];
+                Fingerprint fingerprint = (input.readBoolean() ? readFingerprint(input) : null);
+                int classFilesCount = readCount(input, maxCount);
+                Map<String, ScannedClassFile> classFiles = new TreeMap<>();
+                for (int j = 0; j < classFilesCount; j++) {
+                    String entryName = strings[readVarInt(input)];
+                    Fingerprint classFileFingerprint = readFingerprint(input);
+                    ClassFileInfo classFileInfo = (input.readBoolean() ? readClassFileInfo(input, strings, maxCount) : null);
+                    classFiles.put(entryName, new ScannedClassFile(classFileFingerprint, classFileInfo));
+                }
+                elements.put(key, new ScannedElement(fingerprint, classFiles));
+            }
+            return elements;
+        } catch (EOFException | IndexOutOfBoundsException ex) {
+            throw new IOException("Corrupt scan index " + file, ex);
+        }
+    }
+
+    void write(String packageFilter, Map<String, ScannedElement> elements) throws IOException {
+        Map<String, Integer> stringIndices = new LinkedHashMap<>();
+        for (Map.Entry<String, ScannedElement> elementEntry : elements.entrySet()) {
+            addString(stringIndices, elementEntry.getKey());
+            for (Map.Entry<String, ScannedClassFile> classFileEntry : elementEntry.getValue().getClassFiles().entrySet()) {
+                addString(stringIndices, classFileEntry.getKey());
+                ClassFileInfo classFileInfo = classFileEntry.getValue().getClassFileInfo();
+                if (classFileInfo != null) {
+                    addString(stringIndices, classFileInfo.getName());
+                    addString(stringIndices, classFileInfo.getSuperName());
+                    classFileInfo.getInterfaceNames().forEach(interfaceName -> addString(stringIndices, interfaceName));
+                    classFileInfo.getAnnotationNames().forEach(annotationName -> addString(stringIndices, annotationName));
+                }
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(String.valueOf(packageFilter));
+            writeVarInt(output, stringIndices.size());
+            for (String string : stringIndices.keySet()) {
+                output.writeUTF(string);
+            }
+            writeVarInt(output, elements.size());
+            for (Map.Entry<String, ScannedElement> elementEntry : elements.entrySet()) {
+                ScannedElement element = elementEntry.getValue();
+                writeVarInt(output, stringIndices.get(elementEntry.getKey()));
+                output.writeBoolean(element.getFingerprint() != null);
+                if (element.getFingerprint() != null) {
+                    writeFingerprint(output, element.getFingerprint());
+                }
+                writeVarInt(output, element.getClassFiles().size());
+                for (Map.Entry<String, ScannedClassFile> classFileEntry : element.getClassFiles().entrySet()) {
+                    ScannedClassFile scannedClassFile = classFileEntry.getValue();
+                    writeVarInt(output, stringIndices.get(classFileEntry.getKey()));
+                    writeFingerprint(output, scannedClassFile.getFingerprint());
+                    output.writeBoolean(scannedClassFile.getClassFileInfo() != null);
+                    if (scannedClassFile.getClassFileInfo() != null) {
+                        writeClassFileInfo(output, scannedClassFile.getClassFileInfo(), stringIndices);
+                    }
+                }
+            }
+        }
+        // Parallel builds may write the same index, so it is replaced as a whole
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void addString(Map<String, Integer> stringIndices, String string) {
+        if (string != null) {
+            stringIndices.putIfAbsent(string, stringIndices.size());
+        }
+    }
+
+    private static Fingerprint readFingerprint(DataInputStream input) throws IOException {
+        long size = readVarLong(input);
+        long lastModified = input.readLong();
+        byte[] hash = new byte[input.readUnsignedByte()];
+        input.readFully(hash);
+        return new Fingerprint(size, lastModified, hash);
+    }
+
+    private static void writeFingerprint(DataOutputStream output, Fingerprint fingerprint) throws IOException {
+        writeVarLong(output, fingerprint.getSize());
+        output.writeLong(fingerprint.getLastModified());
+        output.writeByte(fingerprint.getHash().length);
+        output.write(fingerprint.getHash());
+    }
+
+    private static ClassFileInfo readClassFileInfo(DataInputStream input, String[] strings, long maxCount) throws IOException {
+        String name = strings[readVarInt(input)];
+        int superNameIndex = readVarInt(input);
+        String superName = ((superNameIndex > 0) ? strings[superNameIndex - 1] : null);
+        List<String> interfaceNames = readStrings(input, strings, maxCount);
+        List<String> annotationNames = readStrings(input, strings, maxCount);
+        boolean annotation = input.readBoolean();
+        return new ClassFileInfo(name, superName, interfaceNames, annotationNames, annotation);
+    }
+
+    private static void writeClassFileInfo(DataOutputStream output, ClassFileInfo classFileInfo, Map<String, Integer> stringIndices) throws IOException {
+        writeVarInt(output, stringIndices.get(classFileInfo.getName()));
+        // Shifted by one to encode the missing superclass of java.lang.Object as zero
+        writeVarInt(output, ((classFileInfo.getSuperName() != null) ? (stringIndices.get(classFileInfo.getSuperName()) + 1) : 0));
+        writeStrings(output, classFileInfo.getInterfaceNames(), stringIndices);
+        writeStrings(output, classFileInfo.getAnnotationNames(), stringIndices);
+        output.writeBoolean(classFileInfo.isAnnotation());
+    }
+
+    private static List<String> readStrings(DataInputStream input, String[] strings, long maxCount) throws IOException {
+        int count = readCount(input, maxCount);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(strings[readVarInt(input)]);
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> values, Map<String, Integer> stringIndices) throws IOException {
+        writeVarInt(output, values.size());
+        for (String value : values) {
+            writeVarInt(output, stringIndices.get(value));
+        }
+    }
+
+    private static int readCount(DataInputStream input, long maxCount) throws IOException {
+        long count = readVarLong(input);
+        if ((count < 0) || (count > maxCount)) {
+            throw new EOFException("Count " + count + " exceeds the index size");
+        }
+        return (int) count;
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        return (int) readVarLong(input);
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        writeVarLong(output, value);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+}
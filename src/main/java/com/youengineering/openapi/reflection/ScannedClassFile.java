@@ -0,0 +1,14 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+class ScannedClassFile {
+
+    private Fingerprint fingerprint;
+    // Null if the file could not be read as a class file
+    private ClassFileInfo classFileInfo;
+
+}
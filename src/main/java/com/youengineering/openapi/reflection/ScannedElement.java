@@ -0,0 +1,19 @@
+package com.youengineering.openapi.reflection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * The scan result of a single classpath element (directory or jar). Jars carry
+ * a fingerprint of the whole file, directories only of their class files.
+ */
+@AllArgsConstructor
+@Getter
+class ScannedElement {
+
+    private Fingerprint fingerprint;
+    private Map<String, ScannedClassFile> classFiles;
+
+}
@@ -0,0 +1,139 @@
+package com.youengineering.openapi.reflection;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * Caches the class loaders for dependency jars, so executions of different
+ * modules with the same dependencies (e.g. in a reactor build) share the
+ * already defined dependency classes instead of loading them again. Loaders
+ * are keyed by their parent and a digest over the paths, sizes and
+ * modification times of all jars, so a changed jar always results in a new
+ * loader. Loaders are reference counted. Unused ones are only kept while
+ * later projects of the reactor may still use them, at most 16, and are
+ * closed and removed otherwise, so the cache never keeps a parent (e.g. a
+ * discarded plugin realm) or the jars alive after the build.
+ */
+class SharedClassLoaders {
+
+    private static final int MAX_UNUSED_LOADERS_PER_PARENT = 16;
+
+    private static final Map<ClassLoader, Map<String, SharedClassLoader>> CLASS_LOADERS = new IdentityHashMap<>();
+
+    static synchronized Lease acquire(List<Path> jars, ClassLoader parent) throws IOException {
+        Map<String, SharedClassLoader> classLoaders = CLASS_LOADERS.computeIfAbsent(parent, p -> new LinkedHashMap<>(16, 0.75f, true));
+        String digest = getDigest(jars);
+        SharedClassLoader sharedClassLoader = classLoaders.get(digest);
+        if (sharedClassLoader == null) {
+            URL[] urls = new URL[jars.size()];
+            for (int i = 0; i < urls.length; i++) {
+                urls[i] = jars.get(i).toUri().toURL();
+            }
+            sharedClassLoader = new SharedClassLoader(digest, new URLClassLoader(urls, parent));
+            classLoaders.put(digest, sharedClassLoader);
+        }
+        sharedClassLoader.references++;
+        return new Lease(sharedClassLoader);
+    }
+
+    static synchronized int getUnusedLoaderCount() {
+        int unusedLoaderCount = 0;
+        for (Map<String, SharedClassLoader> classLoaders : CLASS_LOADERS.values()) {
+            for (SharedClassLoader sharedClassLoader : classLoaders.values()) {
+                if (sharedClassLoader.references == 0) {
+                    unusedLoaderCount++;
+                }
+            }
+        }
+        return unusedLoaderCount;
+    }
+
+    private static synchronized void release(SharedClassLoader sharedClassLoader, boolean keepUnused) throws IOException {
+        sharedClassLoader.references--;
+        ClassLoader parent = sharedClassLoader.classLoader.getParent();
+        Map<String, SharedClassLoader> classLoaders = CLASS_LOADERS.get(parent);
+        List<SharedClassLoader> unusedClassLoaders = new ArrayList<>();
+        for (SharedClassLoader cachedClassLoader : classLoaders.values()) {
+            if (cachedClassLoader.references == 0) {
+                unusedClassLoaders.add(cachedClassLoader);
+            }
+        }
+        // Iteration order is least recently used first
+        int keptClassLoaders = (keepUnused ? Math.min(unusedClassLoaders.size(), MAX_UNUSED_LOADERS_PER_PARENT) : 0);
+        IOException closeException = null;
+        for (SharedClassLoader unusedClassLoader : unusedClassLoaders.subList(0, unusedClassLoaders.size() - keptClassLoaders)) {
+            classLoaders.remove(unusedClassLoader.digest);
+            try {
+                unusedClassLoader.classLoader.close();
+            } catch (IOException ex) {
+                closeException = ex;
+            }
+        }
+        if (classLoaders.isEmpty()) {
+            CLASS_LOADERS.remove(parent);
+        }
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+
+    private static String getDigest(List<Path> jars) throws IOException {
+        MessageDigest messageDigest = Fingerprint.sha256();
+        for (Path jar : jars) {
+            messageDigest.update(jar.toString().getBytes(StandardCharsets.UTF_8));
+            BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            messageDigest.update(String.format("|%d|%d;", attributes.size(), attributes.lastModifiedTime().toMillis()).getBytes(StandardCharsets.UTF_8));
+        }
+        return Fingerprint.toHex(messageDigest.digest());
+    }
+
+    private static class SharedClassLoader {
+
+        private final String digest;
+        private final URLClassLoader classLoader;
+        private int references;
+
+        private SharedClassLoader(String digest, URLClassLoader classLoader) {
+            this.digest = digest;
+            this.classLoader = classLoader;
+        }
+    }
+
+    /**
+     * One execution's use of a shared loader, released exactly once.
+     */
+    static class Lease {
+
+        private final SharedClassLoader sharedClassLoader;
+        private boolean released;
+
+        private Lease(SharedClassLoader sharedClassLoader) {
+            this.sharedClassLoader = sharedClassLoader;
+        }
+
+        URLClassLoader getClassLoader() {
+            return sharedClassLoader.classLoader;
+        }
+
+        /**
+         * Unused loaders are kept for later executions if keepUnused is set,
+         * otherwise they are all closed, e.g. at the end of the build.
+         */
+        void release(boolean keepUnused) throws IOException {
+            synchronized (SharedClassLoaders.class) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                SharedClassLoaders.release(sharedClassLoader, keepUnused);
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.apache.maven.project.ProjectBuildingRequest;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -49,10 +50,28 @@ public class GenerateTest extends AbstractMojoTestCase {
     private void testFramework(Framework framework) throws Exception {
         // Given
         GenerateMojo mojo = createGenerateMojo(framework);
+        Files.deleteIfExists(new File(getBasedir(), "src/test/resources/" + framework.name() + "/target/openapi-maven-plugin/up-to-date.properties").toPath());
 
         // When
         mojo.execute();
 
+        // Then
+        assetGeneratedFile_Json(framework);
+        assetGeneratedFile_Yaml(framework);
+        assertEquals(previousExtensions, OpenAPIExtensions.getExtensions());
+
+        // When (generating again with unchanged inputs)
+        File generatedJsonFile = getOpenAPIFile(framework, "generated", OutputFormat.json);
+        assertTrue(generatedJsonFile.setLastModified(0));
+        createGenerateMojo(framework).execute();
+
+        // Then
+        assertEquals(0, generatedJsonFile.lastModified());
+
+        // When (generating again from the stored fragments, as an output is missing)
+        assertTrue(getOpenAPIFile(framework, "generated", OutputFormat.yaml).delete());
+        createGenerateMojo(framework).execute();
+
         // Then
         assetGeneratedFile_Json(framework);
         assetGeneratedFile_Yaml(framework);
@@ -0,0 +1,27 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import junit.framework.TestCase;
+
+public class AnnotationParserTest extends TestCase {
+
+    public void testSchemaImplementationKeepsReferencedComponent() throws NoSuchMethodException {
+        ApiResponse apiResponse = getClass().getDeclaredMethod("describedResponse").getAnnotation(ApiResponse.class);
+        AnnotationParserResult<ApiResponses> result = AnnotationParser.parseApiResponses(new ApiResponse[]{apiResponse});
+
+        assertEquals("Response description", result.getResult().get("200").getContent().get("application/json").getSchema().getDescription());
+        assertEquals("Model description", result.getReferencedSchemas().get("DescribedModel").getDescription());
+    }
+
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DescribedModel.class, description = "Response description")))
+    private void describedResponse() {
+    }
+
+    @Schema(description = "Model description")
+    public static class DescribedModel {
+        public String name;
+    }
+}
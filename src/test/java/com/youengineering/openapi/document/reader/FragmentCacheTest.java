@@ -0,0 +1,71 @@
+package com.youengineering.openapi.document.reader;
+
+import com.youengineering.openapi.config.ContentConfig;
+import com.youengineering.openapi.document.generator.OpenAPIGenerator;
+import com.youengineering.openapi.document.reader.jaxrs.JaxrsReader;
+import com.youengineering.openapi.reflection.AnnotatedClassService;
+import io.swagger.v3.oas.models.OpenAPI;
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import javax.ws.rs.Path;
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+public class FragmentCacheTest extends TestCase {
+
+    public void testFragmentIsRebuiltWhenReferencedClassChanges() throws Exception {
+        java.nio.file.Path directory = Files.createTempDirectory("fragment-cache");
+        java.nio.file.Path outputDirectory = Files.createDirectories(directory.resolve("classes"));
+        compile(directory, outputDirectory, "Item", "public class Item { public String name; }");
+        compile(directory, outputDirectory, "ItemResource", "@javax.ws.rs.Path(\"/items\") public class ItemResource { @javax.ws.rs.GET public Item get() { return null; } }");
+
+        OpenAPI openAPI = generate(directory, outputDirectory);
+        assertEquals(Collections.singleton("name"), openAPI.getComponents().getSchemas().get("Item").getProperties().keySet());
+
+        // Only the referenced class changes, the API class stays the same
+        compile(directory, outputDirectory, "Item", "public class Item { public String title; }");
+
+        openAPI = generate(directory, outputDirectory);
+        assertEquals(Collections.singleton("title"), openAPI.getComponents().getSchemas().get("Item").getProperties().keySet());
+    }
+
+    private static OpenAPI generate(java.nio.file.Path directory, java.nio.file.Path outputDirectory) throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, FragmentCacheTest.class.getClassLoader())) {
+            Class<?> apiClass = classLoader.loadClass("sample.ItemResource");
+            AnnotatedClassService annotatedClassService = new AnnotatedClassService(new SystemStreamLog()) {
+
+                @Override
+                public ClassLoader getClassLoader() {
+                    return classLoader;
+                }
+
+                @Override
+                public Set<Class<?>> getAnnotatedClasses(Class<? extends Annotation> annotationClass) {
+                    return ((annotationClass == Path.class) ? Collections.singleton(apiClass) : Collections.emptySet());
+                }
+            };
+            ContentConfig contentConfig = new ContentConfig();
+            JaxrsReader reader = new JaxrsReader(annotatedClassService, new SystemStreamLog(), contentConfig);
+            reader.setFragmentCache(new FragmentCache(directory.resolve("fragments"), new SystemStreamLog()));
+            return new OpenAPIGenerator(contentConfig).generateOpenAPI(reader);
+        }
+    }
+
+    private static void compile(java.nio.file.Path directory, java.nio.file.Path outputDirectory, String name, String body) throws Exception {
+        java.nio.file.Path source = directory.resolve("sample").resolve(name + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ("package sample;\n" + body + "\n").getBytes(StandardCharsets.UTF_8));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String[] arguments = {"-classpath", System.getProperty("java.class.path") + File.pathSeparator + outputDirectory, "-d", outputDirectory.toString(), source.toString()};
+        assertEquals(0, compiler.run(null, null, null, arguments));
+    }
+}
@@ -0,0 +1,43 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.core.converter.AnnotatedType;
+import io.swagger.v3.core.converter.ModelConverter;
+import io.swagger.v3.core.converter.ModelConverterContext;
+import io.swagger.v3.oas.models.media.Schema;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class ModelConverterPipelineTest extends TestCase {
+
+    public void testLastOccurrenceOfConverterTakesPrecedence() {
+        ModelConverter firstA = new ConverterA();
+        ModelConverter b = new ConverterB();
+        ModelConverter secondA = new ConverterA();
+
+        ModelConverterPipeline pipeline = new ModelConverterPipeline(Arrays.asList(firstA, b, secondA));
+
+        assertEquals(Arrays.asList(secondA, b), pipeline.getConverters());
+    }
+
+    public void testConvertersAddedLaterTakePrecedence() {
+        ModelConverter a = new ConverterA();
+        ModelConverter b = new ConverterB();
+
+        ModelConverterPipeline pipeline = new ModelConverterPipeline(Arrays.asList(a, b));
+
+        assertEquals(Arrays.asList(b, a), pipeline.getConverters());
+    }
+
+    private static class ConverterA implements ModelConverter {
+
+        @Override
+        public Schema resolve(AnnotatedType type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+            return (chain.hasNext() ? chain.next().resolve(type, context, chain) : null);
+        }
+    }
+
+    private static class ConverterB extends ConverterA {
+    }
+}
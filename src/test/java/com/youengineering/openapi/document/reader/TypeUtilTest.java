@@ -0,0 +1,36 @@
+package com.youengineering.openapi.document.reader;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+
+public class TypeUtilTest extends TestCase {
+
+    public void testCopyModelKeepsResponsesExtensions() {
+        ApiResponses responses = new ApiResponses().addApiResponse("200", new ApiResponse().description("OK"));
+        responses.addExtension("x-responses", "value");
+        Operation operation = new Operation().operationId("operation").responses(responses);
+
+        Operation operationCopy = TypeUtil.copyModel(operation);
+
+        assertNotSame(operation.getResponses(), operationCopy.getResponses());
+        assertEquals(operation, operationCopy);
+        assertEquals(Collections.singletonMap("x-responses", "value"), operationCopy.getResponses().getExtensions());
+    }
+
+    public void testCopySchemaKeepsWrittenProperties() {
+        Schema<?> schema = new ObjectSchema().addProperties("text", new StringSchema().maxLength(10)).description("Object");
+
+        Schema<?> schemaCopy = TypeUtil.copySchema(schema);
+
+        assertNotSame(schema, schemaCopy);
+        assertEquals(ModelMapper.INSTANCE.valueToTree(schema), ModelMapper.INSTANCE.valueToTree(schemaCopy));
+        assertNull(schemaCopy.getJsonSchema());
+    }
+}
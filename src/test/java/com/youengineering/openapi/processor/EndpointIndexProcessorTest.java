@@ -0,0 +1,58 @@
+package com.youengineering.openapi.processor;
+
+import junit.framework.TestCase;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class EndpointIndexProcessorTest extends TestCase {
+
+    public void testIndexContainsMetaAnnotatedTypesAndSubtypes() throws IOException {
+        Path directory = Files.createTempDirectory("endpoint-index");
+        Path outputDirectory = Files.createDirectories(directory.resolve("classes"));
+        List<Path> sources = Arrays.asList(
+                writeSource(directory, "Api", "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME) @javax.ws.rs.Path(\"\") public @interface Api {}"),
+                writeSource(directory, "ApiResource", "@Api public class ApiResource { public static class Nested extends ApiResource {} }"),
+                writeSource(directory, "PathResource", "@javax.ws.rs.Path(\"/path\") public class PathResource {}"),
+                writeSource(directory, "Plain", "public class Plain {}"));
+        compile(outputDirectory, sources);
+
+        Map<String, Set<String>> index = readIndex(outputDirectory);
+        assertEquals(Collections.singleton("javax.ws.rs.Path"), index.keySet());
+        assertEquals(new TreeSet<>(Arrays.asList("sample.ApiResource", "sample.ApiResource$Nested", "sample.PathResource")), index.get("javax.ws.rs.Path"));
+
+        // An incremental compilation keeps the entries of the types it did not compile
+        compile(outputDirectory, Collections.singletonList(writeSource(directory, "PathResource", "public class PathResource {}")));
+        assertEquals(new TreeSet<>(Arrays.asList("sample.ApiResource", "sample.ApiResource$Nested")), readIndex(outputDirectory).get("javax.ws.rs.Path"));
+    }
+
+    private static Path writeSource(Path directory, String name, String body) throws IOException {
+        Path source = directory.resolve("sample").resolve(name + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, ("package sample;\n" + body + "\n").getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    private static void compile(Path outputDirectory, List<Path> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "-classpath", System.getProperty("java.class.path") + File.pathSeparator + outputDirectory,
+                "-processor", EndpointIndexProcessor.class.getName(),
+                "-d", outputDirectory.toString()));
+        sources.forEach(source -> arguments.add(source.toString()));
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+    }
+
+    private static Map<String, Set<String>> readIndex(Path outputDirectory) throws IOException {
+        try (InputStream input = Files.newInputStream(outputDirectory.resolve(EndpointIndexProcessor.INDEX_RESOURCE))) {
+            return EndpointIndexProcessor.readIndex(input);
+        }
+    }
+}
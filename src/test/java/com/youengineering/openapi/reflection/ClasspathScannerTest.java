@@ -0,0 +1,156 @@
+package com.youengineering.openapi.reflection;
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ClasspathScannerTest extends TestCase {
+
+    private static final String SPRING_CONTROLLER = "org.springframework.stereotype.Controller";
+
+    public void testFindsDirectlyAnnotatedTypes() throws Exception {
+        Set<String> typeNames = getTypesAnnotatedWith("com.youengineering.openapi.samples.jaxrs", javax.ws.rs.Path.class.getName());
+        assertTrue(typeNames.contains("com.youengineering.openapi.samples.jaxrs.TestResource"));
+        assertFalse(typeNames.contains("com.youengineering.openapi.samples.jaxrs.Pet"));
+    }
+
+    public void testFindsMetaAnnotatedTypes() throws Exception {
+        Set<String> typeNames = getTypesAnnotatedWith("com.youengineering.openapi.samples.spring", SPRING_CONTROLLER);
+        assertTrue(typeNames.contains("com.youengineering.openapi.samples.spring.TestEchoController"));
+        assertEquals(getTypesAnnotatedWith("com.youengineering.openapi.samples.spring", RestController.class.getName()), typeNames);
+    }
+
+    public void testRescanReusesStoredIndex() throws Exception {
+        String sourcePackage = "com.youengineering.openapi.samples.spring";
+        ClassLoader classLoader = getClass().getClassLoader();
+        Path scanIndexFile = Files.createTempDirectory("scan-index").resolve("scan-index.bin");
+        ScanIndexStore scanIndexStore = new ScanIndexStore(scanIndexFile);
+
+        ClasspathScanner initialScanner = new ClasspathScanner(sourcePackage);
+        Set<URL> roots = initialScanner.getRoots(classLoader, new URL[0]);
+        Map<String, ScannedElement> initialElements = initialScanner.scan(roots, scanIndexStore.read(sourcePackage));
+        scanIndexStore.write(sourcePackage, initialElements);
+
+        ClasspathScanner rescanner = new ClasspathScanner(sourcePackage);
+        Map<String, ScannedElement> elements = rescanner.scan(roots, scanIndexStore.read(sourcePackage));
+        assertTrue(initialScanner.getReadClassFiles() > 0);
+        assertEquals(0, rescanner.getReadClassFiles());
+        assertEquals(initialScanner.getReadClassFiles(), rescanner.getReusedClassFiles());
+        assertFalse(rescanner.isModified());
+        assertEquals(AnnotationIndex.of(initialElements.values()).size(), AnnotationIndex.of(elements.values()).size());
+        assertTrue(new ScanIndexStore(scanIndexFile).read("other.package").isEmpty());
+    }
+
+    public void testCorruptStoredIndexIsRejected() throws Exception {
+        Path scanIndexFile = Files.createTempDirectory("scan-index").resolve("scan-index.bin");
+        ScanIndexStore scanIndexStore = new ScanIndexStore(scanIndexFile);
+        scanIndexStore.write("sample", Collections.emptyMap());
+        byte[] bytes = Files.readAllBytes(scanIndexFile);
+        // Replace the string and element counts with a string count far beyond the file size
+        byte[] corruptBytes = Arrays.copyOf(bytes, bytes.length + 3);
+        System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, corruptBytes, bytes.length - 2, 5);
+        Files.write(scanIndexFile, corruptBytes);
+
+        try {
+            scanIndexStore.read("sample");
+            fail();
+        } catch (IOException ex) {
+            // Expected, the index is rebuilt
+        }
+    }
+
+    public void testJarScanCacheIsSharedAcrossSourcePackages() throws Exception {
+        Path temporaryDirectory = Files.createTempDirectory("jar-scan-cache");
+        Path jar = createSamplesJar(temporaryDirectory.resolve("samples.jar"));
+        JarScanCache jarScanCache = new JarScanCache(temporaryDirectory.resolve("cache"), new SystemStreamLog());
+        Set<URL> roots = Collections.singleton(jar.toUri().toURL());
+
+        ClasspathScanner jaxrsScanner = new ClasspathScanner(PackageFilter.of("com.youengineering.openapi.samples.jaxrs"), jarScanCache, 1);
+        AnnotationIndex jaxrsIndex = AnnotationIndex.of(jaxrsScanner.scan(roots, Collections.emptyMap()).values());
+        ClasspathScanner springScanner = new ClasspathScanner(PackageFilter.of("com.youengineering.openapi.samples.spring"), jarScanCache, 1);
+        AnnotationIndex springIndex = AnnotationIndex.of(springScanner.scan(roots, Collections.emptyMap()).values());
+
+        assertTrue(jaxrsScanner.getReadClassFiles() > 0);
+        assertEquals(0, springScanner.getReadClassFiles());
+        assertEquals(jaxrsScanner.getReadClassFiles(), springScanner.getSharedClassFiles());
+        assertNotNull(jaxrsIndex.get("com.youengineering.openapi.samples.jaxrs.TestResource"));
+        assertNull(jaxrsIndex.get("com.youengineering.openapi.samples.spring.TestEchoController"));
+        assertNotNull(springIndex.get("com.youengineering.openapi.samples.spring.TestEchoController"));
+    }
+
+    public void testParallelScanKeepsClasspathOrder() throws Exception {
+        Path temporaryDirectory = Files.createTempDirectory("parallel-scan");
+        Set<URL> roots = new LinkedHashSet<>();
+        roots.add(createSamplesJar(temporaryDirectory.resolve("samples1.jar")).toUri().toURL());
+        roots.add(getClass().getProtectionDomain().getCodeSource().getLocation());
+        roots.add(createSamplesJar(temporaryDirectory.resolve("samples2.jar")).toUri().toURL());
+
+        Map<String, ScannedElement> sequentialElements = new ClasspathScanner(PackageFilter.of("com.youengineering.openapi.samples"), null, 1).scan(roots, Collections.emptyMap());
+        Map<String, ScannedElement> parallelElements = new ClasspathScanner(PackageFilter.of("com.youengineering.openapi.samples"), null, 4).scan(roots, Collections.emptyMap());
+
+        assertEquals(new ArrayList<>(sequentialElements.keySet()), new ArrayList<>(parallelElements.keySet()));
+        for (String key : sequentialElements.keySet()) {
+            assertEquals(sequentialElements.get(key).getClassFiles().keySet(), parallelElements.get(key).getClassFiles().keySet());
+        }
+    }
+
+    public void testExcludedPackagesArePrunedFromScan() throws Exception {
+        Path temporaryDirectory = Files.createTempDirectory("package-filter");
+        Set<URL> roots = new LinkedHashSet<>();
+        roots.add(createSamplesJar(temporaryDirectory.resolve("samples.jar")).toUri().toURL());
+        roots.add(getClass().getProtectionDomain().getCodeSource().getLocation());
+        PackageFilter packageFilter = new PackageFilter(
+                Arrays.asList("com.youengineering.openapi.samples", "com.youengineering.openapi.samples.spring"),
+                Collections.singletonList("com.youengineering.openapi.samples.jaxrs"));
+
+        Map<String, ScannedElement> elements = new ClasspathScanner(packageFilter, null, 1).scan(roots, Collections.emptyMap());
+
+        for (ScannedElement element : elements.values()) {
+            assertTrue(element.getClassFiles().containsKey("com/youengineering/openapi/samples/spring/TestEchoController.class"));
+            assertTrue(element.getClassFiles().keySet().stream().noneMatch(entryName -> entryName.startsWith("com/youengineering/openapi/samples/jaxrs/")));
+        }
+        assertFalse(packageFilter.includesPackage("com.youengineering.openapi.samplesother"));
+        assertTrue(packageFilter.includesDirectory("com/youengineering"));
+        assertFalse(packageFilter.includesDirectory("com/other"));
+    }
+
+    private Path createSamplesJar(Path jar) throws Exception {
+        Path testClasses = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(testClasses.resolve("com/youengineering/openapi/samples"))) {
+            classFiles = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path classFile : classFiles) {
+                jarOutputStream.putNextEntry(new JarEntry(testClasses.relativize(classFile).toString().replace('\\', '/')));
+                jarOutputStream.write(Files.readAllBytes(classFile));
+                jarOutputStream.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private Set<String> getTypesAnnotatedWith(String sourcePackage, String annotationName) throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClasspathScanner classpathScanner = new ClasspathScanner(sourcePackage);
+        AnnotationIndex annotationIndex = classpathScanner.scan(classpathScanner.getRoots(classLoader, new URL[0]));
+        return annotationIndex.getTypesAnnotatedWith(annotationName, new MetaAnnotationResolver(annotationIndex, classLoader));
+    }
+}
@@ -0,0 +1,32 @@
+package com.youengineering.openapi.reflection;
+
+import junit.framework.TestCase;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class JarReaderTest extends TestCase {
+
+    public void testReadsSameEntriesAsZipFile() throws Exception {
+        Path jar = Paths.get(RestController.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String namePrefix = "org/springframework/web/bind/annotation/";
+        try (JarReader jarReader = JarReader.open(jar); ZipFile zipFile = new ZipFile(jar.toFile())) {
+            assertNotNull(jarReader);
+            List<JarReader.Entry> entries = jarReader.getClassFileEntries(namePrefix);
+            long expectedEntriesCount = zipFile.stream()
+                    .filter(zipEntry -> zipEntry.getName().startsWith(namePrefix) && zipEntry.getName().endsWith(".class"))
+                    .count();
+            assertEquals(expectedEntriesCount, entries.size());
+            for (JarReader.Entry entry : entries) {
+                ZipEntry zipEntry = zipFile.getEntry(entry.getName());
+                assertEquals(zipEntry.getCrc(), entry.getCrc());
+                assertTrue(Arrays.equals(ClasspathScanner.readAllBytes(zipFile.getInputStream(zipEntry)), jarReader.read(entry)));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.youengineering.openapi.reflection;
+
+import com.youengineering.openapi.samples.jaxrs.TestResource;
+import com.youengineering.openapi.samples.spring.TestParametersController;
+import junit.framework.TestCase;
+import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+public class ParameterNameTableTest extends TestCase {
+
+    public void testFindsSameNamesAsLocalVariableTableDiscoverer() {
+        LocalVariableTableParameterNameDiscoverer parameterNameDiscoverer = new LocalVariableTableParameterNameDiscoverer();
+        for (Class<?> type : Arrays.asList(TestParametersController.class, TestResource.class, ClasspathScanner.class)) {
+            for (Method method : type.getDeclaredMethods()) {
+                // Spring does not read the names of synthetic methods
+                if (method.isSynthetic()) {
+                    continue;
+                }
+                String[] expectedNames = parameterNameDiscoverer.getParameterNames(method);
+                assertTrue(method.toString(), Arrays.equals(expectedNames, ParameterNameTable.getParameterNames(method)));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.youengineering.openapi.reflection;
+
+import junit.framework.TestCase;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+public class SharedClassLoadersTest extends TestCase {
+
+    private static final String RESOURCE_NAME = "org/springframework/web/bind/annotation/RestController.class";
+
+    public void testUnusedLoaderIsClosedOnRelease() throws Exception {
+        List<Path> jars = getJars();
+        ClassLoader parent = new URLClassLoader(new URL[0], null);
+        SharedClassLoaders.Lease lease = SharedClassLoaders.acquire(jars, parent);
+        URLClassLoader classLoader = lease.getClassLoader();
+        assertNotNull(classLoader.findResource(RESOURCE_NAME));
+
+        lease.release(false);
+
+        assertNull(classLoader.findResource(RESOURCE_NAME));
+        SharedClassLoaders.Lease laterLease = SharedClassLoaders.acquire(jars, parent);
+        assertNotSame(classLoader, laterLease.getClassLoader());
+        laterLease.release(false);
+    }
+
+    public void testUnusedLoaderIsKeptForLaterExecutions() throws Exception {
+        List<Path> jars = getJars();
+        ClassLoader parent = new URLClassLoader(new URL[0], null);
+        SharedClassLoaders.Lease lease = SharedClassLoaders.acquire(jars, parent);
+        URLClassLoader classLoader = lease.getClassLoader();
+
+        lease.release(true);
+        SharedClassLoaders.Lease laterLease = SharedClassLoaders.acquire(jars, parent);
+
+        assertSame(classLoader, laterLease.getClassLoader());
+        assertNotNull(classLoader.findResource(RESOURCE_NAME));
+
+        laterLease.release(false);
+
+        assertNull(classLoader.findResource(RESOURCE_NAME));
+    }
+
+    private static List<Path> getJars() throws Exception {
+        return Collections.singletonList(Paths.get(RestController.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+    }
+}
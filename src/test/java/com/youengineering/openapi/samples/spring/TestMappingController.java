@@ -1,5 +1,6 @@
 package com.youengineering.openapi.samples.spring;
 
+import io.swagger.v3.oas.annotations.Parameter;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,4 +16,14 @@ public class TestMappingController {
     public TestResponse testPost(@RequestBody TestRequestBody testRequestBody) {
         return new TestResponse(testRequestBody.getText(), new TestInnerResponse(testRequestBody.getNumber()));
     }
+
+    @RequestMapping(path = {"/multi/{id:[0-9]+}", "/multi/{id:[0-9]+}/alias"}, method = {RequestMethod.GET, RequestMethod.PUT})
+    public TestResponse testMulti(@PathVariable String id, @RequestParam(required = false) String text) {
+        return new TestResponse(text, new TestInnerResponse(Integer.parseInt(id)));
+    }
+
+    @PostMapping("/upload")
+    public String testUpload(@Parameter(description = "The uploaded file") @RequestPart("file") String file, @RequestParam String name) {
+        return name;
+    }
 }